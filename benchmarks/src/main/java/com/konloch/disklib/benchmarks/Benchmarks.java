@@ -0,0 +1,124 @@
+package com.konloch.disklib.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared fixtures for the benchmarks
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+final class Benchmarks
+{
+	private static final String[] WORDS = {"disk", "lib", "read", "write", "gzip", "line", "buffer", "channel", "2014", "konloch"};
+	
+	private Benchmarks()
+	{
+	}
+	
+	/**
+	 * Builds a line of log-like text, compressible the way real text files are
+	 *
+	 * @param random the source of word choices
+	 * @return a line without a line separator
+	 */
+	static String line(Random random)
+	{
+		StringBuilder sb = new StringBuilder();
+		int words = 4 + random.nextInt(12);
+		for (int i = 0; i < words; i++)
+		{
+			if (i > 0)
+				sb.append(' ');
+			
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Builds a list of log-like lines
+	 *
+	 * @param count the number of lines
+	 * @return the lines
+	 */
+	static List<String> lines(int count)
+	{
+		Random random = new Random(count);
+		List<String> lines = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			lines.add(line(random));
+		
+		return lines;
+	}
+	
+	/**
+	 * Builds a byte Array of log-like text
+	 *
+	 * @param size the size in bytes
+	 * @return the text as UTF-8 bytes
+	 */
+	static byte[] text(int size)
+	{
+		Random random = new Random(size);
+		byte[] text = new byte[size];
+		int position = 0;
+		
+		while (position < size)
+		{
+			byte[] line = (line(random) + "\n").getBytes(StandardCharsets.UTF_8);
+			int length = Math.min(line.length, size - position);
+			System.arraycopy(line, 0, text, position, length);
+			position += length;
+		}
+		
+		return text;
+	}
+	
+	/**
+	 * Writes a temp file of log-like text
+	 *
+	 * @param size the size in bytes
+	 * @return the temp file, deleted on exit
+	 * @throws IOException if an I/O error occurs
+	 */
+	static File createTextFile(long size) throws IOException
+	{
+		File file = tempFile();
+		Random random = new Random(size);
+		long written = 0;
+		
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16))
+		{
+			while (written < size)
+			{
+				byte[] line = (line(random) + "\n").getBytes(StandardCharsets.UTF_8);
+				int length = (int) Math.min(line.length, size - written);
+				out.write(line, 0, length);
+				written += length;
+			}
+		}
+		
+		return file;
+	}
+	
+	/**
+	 * @return an empty temp file, deleted on exit
+	 * @throws IOException if an I/O error occurs
+	 */
+	static File tempFile() throws IOException
+	{
+		File file = File.createTempFile("disklib-benchmark", ".tmp");
+		file.deleteOnExit();
+		return file;
+	}
+}
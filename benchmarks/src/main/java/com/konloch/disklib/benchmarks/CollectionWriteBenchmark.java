@@ -0,0 +1,56 @@
+package com.konloch.disklib.benchmarks;
+
+import com.konloch.disklib.DiskWriter;
+import com.konloch.disklib.GZipDiskWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing String Collections, plain and gzip compressed
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionWriteBenchmark
+{
+	@Param({"100", "10000", "1000000"})
+	public int lineCount;
+	
+	private List<String> lines;
+	private File file;
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		lines = Benchmarks.lines(lineCount);
+		file = Benchmarks.tempFile();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		file.delete();
+	}
+	
+	@Benchmark
+	public void write() throws IOException
+	{
+		DiskWriter.write(file, lines);
+	}
+	
+	@Benchmark
+	public void gzipWrite() throws IOException
+	{
+		GZipDiskWriter.write(file, lines);
+	}
+}
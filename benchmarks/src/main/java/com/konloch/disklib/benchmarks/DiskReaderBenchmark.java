@@ -0,0 +1,79 @@
+package com.konloch.disklib.benchmarks;
+
+import com.konloch.disklib.DiskReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the DiskReader read paths across file sizes
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class DiskReaderBenchmark
+{
+	@Param({"1024", "1048576", "104857600", "1073741824"})
+	public long fileSize;
+	
+	private File file;
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		file = Benchmarks.createTextFile(fileSize);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		file.delete();
+	}
+	
+	@Benchmark
+	public ArrayList<String> read() throws IOException
+	{
+		return DiskReader.read(file);
+	}
+	
+	@Benchmark
+	public byte[] readBytes() throws IOException
+	{
+		return DiskReader.readBytes(file);
+	}
+	
+	@Benchmark
+	public String readString() throws IOException
+	{
+		return DiskReader.readString(file);
+	}
+	
+	@Benchmark
+	public void forEachLine(Blackhole blackhole) throws IOException
+	{
+		DiskReader.forEachLine(file, blackhole::consume);
+	}
+	
+	@Benchmark
+	public void forEachMappedLine(Blackhole blackhole) throws IOException
+	{
+		DiskReader.forEachMappedLine(file, blackhole::consume);
+	}
+	
+	@Benchmark
+	public long indexOf() throws IOException
+	{
+		return DiskReader.indexOf(file, "not in the file".getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,55 @@
+package com.konloch.disklib.benchmarks;
+
+import com.konloch.disklib.DiskAppender;
+import com.konloch.disklib.DiskWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks appending single lines in a tight loop, per call and through a held open DiskAppender
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiskWriterBenchmark
+{
+	private static final String LINE = "2014-10-18 12:00:00 INFO disklib appended a line to the log";
+	
+	private File file;
+	private DiskAppender appender;
+	
+	@Setup(Level.Iteration)
+	public void setup() throws IOException
+	{
+		file = Benchmarks.tempFile();
+		appender = DiskWriter.openAppender(file);
+	}
+	
+	@TearDown(Level.Iteration)
+	public void tearDown() throws IOException
+	{
+		appender.close();
+		file.delete();
+	}
+	
+	@Benchmark
+	public void append() throws IOException
+	{
+		DiskWriter.append(file, LINE, true);
+	}
+	
+	@Benchmark
+	public void appender() throws IOException
+	{
+		appender.append(LINE, true);
+	}
+}
@@ -0,0 +1,63 @@
+package com.konloch.disklib.benchmarks;
+
+import com.konloch.disklib.CompressionOptions;
+import com.konloch.disklib.GZip;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Benchmarks GZip compression and decompression across payload sizes, levels and buffer sizes
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GZipBenchmark
+{
+	@Param({"1024", "65536", "1048576", "16777216"})
+	public int payloadSize;
+	
+	@Param({"1", "6", "9"})
+	public int level;
+	
+	@Param({"1024", "8192", "65536"})
+	public int bufferSize;
+	
+	private byte[] payload;
+	private byte[] compressed;
+	private CompressionOptions options;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		payload = Benchmarks.text(payloadSize);
+		options = new CompressionOptions().setLevel(level).setBufferSize(bufferSize);
+		compressed = GZip.compress(payload, options);
+	}
+	
+	@Benchmark
+	public byte[] compress()
+	{
+		return GZip.compress(payload, options);
+	}
+	
+	@Benchmark
+	public byte[] compressParallel()
+	{
+		return GZip.compress(payload, new CompressionOptions().setLevel(level).setBufferSize(bufferSize)
+				.setBlockSize(CompressionOptions.DEFAULT_BLOCK_SIZE));
+	}
+	
+	@Benchmark
+	public byte[] decompress() throws DataFormatException
+	{
+		return GZip.decompress(compressed);
+	}
+}
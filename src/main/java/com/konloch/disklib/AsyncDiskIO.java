@@ -0,0 +1,279 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Whole file reads and writes over AsynchronousFileChannel, completing a CompletableFuture instead of blocking the caller.
+ * Every operation is a chain of completion handlers on the bounded DiskExecutors I/O pool,
+ * no thread waits on an operation in between its reads or writes.
+ * Data moves through pooled direct buffers, so the channel never has to copy through a temporary direct buffer of its own.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class AsyncDiskIO
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final Set<StandardOpenOption> READ = EnumSet.of(StandardOpenOption.READ);
+	private static final Set<StandardOpenOption> WRITE = EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+	
+	/**
+	 * Reads a whole file, as long as it was when it was opened
+	 *
+	 * @param file the file object to read from
+	 * @return a future completing with the file contents, or exceptionally with the IOException
+	 */
+	static CompletableFuture<byte[]> readBytes(File file)
+	{
+		CompletableFuture<byte[]> future = new CompletableFuture<>();
+		AsynchronousFileChannel channel = null;
+		
+		try
+		{
+			channel = AsynchronousFileChannel.open(file.toPath(), READ, DiskExecutors.io());
+			
+			long size = channel.size();
+			if (size > MAX_ARRAY_SIZE)
+				throw new IOException("File is too large to read into a byte Array: " + file);
+			
+			new Read(channel, new byte[(int) size], future).next();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			close(channel);
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Writes a byte Array to a file, creating or truncating it first
+	 *
+	 * @param file the file object to write to
+	 * @param fileContents byte Array of any size
+	 * @return a future completing once every byte is written and the file is closed, or exceptionally with the IOException
+	 */
+	static CompletableFuture<Void> write(File file, byte[] fileContents)
+	{
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		
+		try
+		{
+			new Write(AsynchronousFileChannel.open(file.toPath(), WRITE, DiskExecutors.io()), fileContents, future).next();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * @return a cleared direct buffer from the pool, or a new one if the pool is empty
+	 */
+	private static ByteBuffer acquireBuffer()
+	{
+		ByteBuffer buffer = BUFFERS.poll();
+		return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+	
+	/**
+	 * Returns a buffer to the pool, it is dropped if the pool is already full
+	 *
+	 * @param buffer the buffer to return, no operation may still be using it
+	 */
+	private static void releaseBuffer(ByteBuffer buffer)
+	{
+		((Buffer) buffer).clear();
+		BUFFERS.offer(buffer);
+	}
+	
+	/**
+	 * Closes a channel, ignoring any failure since the operation has already failed
+	 *
+	 * @param channel the channel to close, or null
+	 */
+	private static void close(AsynchronousFileChannel channel)
+	{
+		if (channel != null)
+			try
+			{
+				channel.close();
+			} catch (Exception ex) {}
+	}
+	
+	/**
+	 * Shared state and completion of a chained operation
+	 *
+	 * @param <T> the result of the operation
+	 */
+	private static abstract class Operation<T> implements CompletionHandler<Integer, Void>
+	{
+		final AsynchronousFileChannel channel;
+		final CompletableFuture<T> future;
+		final ByteBuffer buffer = acquireBuffer();
+		
+		Operation(AsynchronousFileChannel channel, CompletableFuture<T> future)
+		{
+			this.channel = channel;
+			this.future = future;
+		}
+		
+		/**
+		 * Starts the next read or write, or completes the operation once there is nothing left
+		 */
+		abstract void step();
+		
+		/**
+		 * Runs the next step, failing the operation if it can't be started
+		 */
+		void next()
+		{
+			try
+			{
+				step();
+			}
+			catch (RuntimeException e)
+			{
+				failed(e, null);
+			}
+		}
+		
+		/**
+		 * Closes the channel and completes the future
+		 *
+		 * @param result the result of the operation
+		 */
+		void finish(T result)
+		{
+			releaseBuffer(buffer);
+			
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				future.completeExceptionally(e);
+				return;
+			}
+			
+			future.complete(result);
+		}
+		
+		@Override
+		public void failed(Throwable exc, Void attachment)
+		{
+			releaseBuffer(buffer);
+			close(channel);
+			future.completeExceptionally(exc);
+		}
+	}
+	
+	/**
+	 * Reads the file a buffer at a time, copying each buffer into the result
+	 */
+	private static class Read extends Operation<byte[]>
+	{
+		private final byte[] bytes;
+		private int position;
+		
+		Read(AsynchronousFileChannel channel, byte[] bytes, CompletableFuture<byte[]> future)
+		{
+			super(channel, future);
+			this.bytes = bytes;
+		}
+		
+		@Override
+		void step()
+		{
+			if (position == bytes.length)
+			{
+				finish(bytes);
+				return;
+			}
+			
+			((Buffer) buffer).clear();
+			((Buffer) buffer).limit(Math.min(buffer.capacity(), bytes.length - position));
+			channel.read(buffer, position, null, this);
+		}
+		
+		@Override
+		public void completed(Integer read, Void attachment)
+		{
+			//the file was truncated after it was opened
+			if (read < 0)
+			{
+				finish(Arrays.copyOf(bytes, position));
+				return;
+			}
+			
+			((Buffer) buffer).flip();
+			buffer.get(bytes, position, read);
+			position += read;
+			next();
+		}
+	}
+	
+	/**
+	 * Copies the contents into the buffer a buffer at a time, writing each one out fully before refilling it
+	 */
+	private static class Write extends Operation<Void>
+	{
+		private final byte[] bytes;
+		private int offset;
+		private long position;
+		
+		Write(AsynchronousFileChannel channel, byte[] bytes, CompletableFuture<Void> future)
+		{
+			super(channel, future);
+			this.bytes = bytes;
+			((Buffer) buffer).limit(0);
+		}
+		
+		@Override
+		void step()
+		{
+			if (!buffer.hasRemaining())
+			{
+				if (offset == bytes.length)
+				{
+					finish(null);
+					return;
+				}
+				
+				int length = Math.min(buffer.capacity(), bytes.length - offset);
+				((Buffer) buffer).clear();
+				buffer.put(bytes, offset, length);
+				((Buffer) buffer).flip();
+				offset += length;
+			}
+			
+			channel.write(buffer, position, null, this);
+		}
+		
+		@Override
+		public void completed(Integer written, Void attachment)
+		{
+			position += written;
+			next();
+		}
+	}
+}
@@ -0,0 +1,435 @@
+package com.konloch.disklib;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous group-commit appender.
+ * Any thread can append, records are queued on a lock-free ring buffer and a single background thread
+ * writes them to the file in large batches, sharing one write and one fsync between many small appends.
+ * Each append returns a CompletableFuture that completes once the record is as durable as the FsyncPolicy makes it.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class AsyncDiskWriter implements Closeable
+{
+	public static final int DEFAULT_CAPACITY = 64 * 1024;
+	public static final int DEFAULT_BATCH_SIZE = 256 * 1024;
+	public static final long DEFAULT_FSYNC_INTERVAL = 1000;
+	
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final int MAX_BATCH_RECORDS = 16 * 1024;
+	
+	/**
+	 * When written batches are forced to the storage device
+	 */
+	public enum FsyncPolicy
+	{
+		/**
+		 * Never fsync, futures complete as soon as the batch is handed to the operating system
+		 */
+		NEVER,
+		
+		/**
+		 * Fsync at most once per interval, futures complete after the fsync covering their batch
+		 */
+		INTERVAL,
+		
+		/**
+		 * Fsync after every batch, futures complete after the fsync covering their batch
+		 */
+		EVERY_BATCH
+	}
+	
+	private final FileChannel channel;
+	private final MpscRingBuffer<Record> ring;
+	private final ByteBuffer batch;
+	private final FsyncPolicy fsyncPolicy;
+	private final long fsyncIntervalNanos;
+	private final Thread thread;
+	private final List<CompletableFuture<Void>> written = new ArrayList<>();
+	private final List<CompletableFuture<Void>> awaitingSync = new ArrayList<>();
+	private final AtomicInteger appending = new AtomicInteger();
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private long lastSync = System.nanoTime();
+	private volatile boolean sleeping;
+	private volatile IOException closeFailure;
+	
+	/**
+	 * Opens the file for appending and starts the background writer thread.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file the file object to open
+	 * @param fsyncPolicy when written batches are forced to the storage device
+	 * @param fsyncIntervalMillis the interval used by FsyncPolicy.INTERVAL
+	 * @param capacity the number of records that can be queued before appends wait
+	 * @param batchSize the size of the direct buffer each batch is collected in
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	AsyncDiskWriter(File file, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, int capacity, int batchSize) throws IOException
+	{
+		if (fsyncIntervalMillis <= 0 && fsyncPolicy == FsyncPolicy.INTERVAL)
+			throw new IllegalArgumentException("Fsync interval must be positive");
+		
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("Batch size must be positive");
+		
+		this.ring = new MpscRingBuffer<>(capacity);
+		this.batch = ByteBuffer.allocateDirect(batchSize);
+		this.fsyncPolicy = fsyncPolicy;
+		this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		
+		this.thread = new Thread(this::run, "DiskLib-AsyncWriter-" + file.getName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	/**
+	 * Queues a String to be appended to the file
+	 *
+	 * @param line String to write
+	 * @return CompletableFuture completing once the record is written, per the FsyncPolicy
+	 */
+	public CompletableFuture<Void> append(String line)
+	{
+		return append(line, false);
+	}
+	
+	/**
+	 * Queues a String to be appended to the file
+	 *
+	 * @param line String to write
+	 * @param appendNewLine true to append a new line
+	 * @return CompletableFuture completing once the record is written, per the FsyncPolicy
+	 */
+	public CompletableFuture<Void> append(String line, boolean appendNewLine)
+	{
+		return append((appendNewLine ? line + System.lineSeparator() : line).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Queues a byte Array to be appended to the file.
+	 * The array must not be modified until the returned future completes.
+	 * If the queue is full this waits for the background thread to make room,
+	 * unless it is called from a future's callback on that thread, then the record fails with an IOException instead.
+	 *
+	 * @param bytes byte Array of any size
+	 * @return CompletableFuture completing once the record is written, per the FsyncPolicy
+	 */
+	public CompletableFuture<Void> append(byte[] bytes)
+	{
+		Record record = new Record(bytes);
+		
+		//counted before the closed check, so either this record fails here or the writer thread waits until it is queued
+		appending.incrementAndGet();
+		try
+		{
+			while (true)
+			{
+				if (closed.get())
+				{
+					record.future.completeExceptionally(new IOException("Writer closed"));
+					return record.future;
+				}
+				
+				if (ring.offer(record))
+					break;
+				
+				//the writer thread is the only one draining the ring, waiting on itself would never end
+				if (Thread.currentThread() == thread)
+				{
+					record.future.completeExceptionally(new IOException("Queue full, the writer thread can't wait for room"));
+					return record.future;
+				}
+				
+				LockSupport.unpark(thread);
+				LockSupport.parkNanos(this, FULL_PARK_NANOS);
+			}
+		}
+		finally
+		{
+			appending.decrementAndGet();
+		}
+		
+		if (sleeping)
+			LockSupport.unpark(thread);
+		
+		return record.future;
+	}
+	
+	/**
+	 * Writes every queued record, forces the file unless the FsyncPolicy is NEVER, then closes it.
+	 * Records appended after close fail with an IOException.
+	 * When called from a future's callback on the writer thread, close only marks the writer closed
+	 * and returns, the writer thread finishes the queued records and closes the file once the callback returns.
+	 *
+	 * @throws IOException if an I/O error occurs closing the file
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (!closed.compareAndSet(false, true))
+			return;
+		
+		//joining itself would never return, run finishes the work once the callback returns
+		if (Thread.currentThread() == thread)
+			return;
+		
+		LockSupport.unpark(thread);
+		
+		boolean interrupted = false;
+		while (thread.isAlive())
+		{
+			try
+			{
+				thread.join();
+			}
+			catch (InterruptedException e)
+			{
+				interrupted = true;
+			}
+		}
+		
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		
+		if (closeFailure != null)
+			throw closeFailure;
+	}
+	
+	/**
+	 * The background writer loop, draining the ring buffer into batches until closed, then closing the file
+	 */
+	private void run()
+	{
+		try
+		{
+			while (true)
+			{
+				boolean drained = drain();
+				
+				if (drained)
+					continue;
+				
+				//appends that passed the closed check are still queueing, keep going until their records are written
+				if (closed.get() && appending.get() == 0 && ring.isEmpty())
+					break;
+				
+				//publish sleeping before the final empty check, so a producer either sees it or we see their record
+				sleeping = true;
+				if (ring.isEmpty() && !closed.get())
+					LockSupport.parkNanos(this, parkNanos());
+				sleeping = false;
+				
+				if (fsyncPolicy == FsyncPolicy.INTERVAL && !awaitingSync.isEmpty()
+						&& System.nanoTime() - lastSync >= fsyncIntervalNanos)
+					sync();
+			}
+			
+			if (!awaitingSync.isEmpty())
+				sync();
+		}
+		finally
+		{
+			//the loop only exits once no append is in flight and the ring is empty,
+			//so this finds nothing unless the loop died, and then the records are failed rather than left incomplete
+			Record record;
+			while ((record = ring.poll()) != null)
+				record.future.completeExceptionally(new IOException("Writer closed"));
+			
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				closeFailure = e;
+			}
+		}
+	}
+	
+	/**
+	 * Collects every queued record into one batch and writes it
+	 *
+	 * @return false if there was nothing queued
+	 */
+	private boolean drain()
+	{
+		Record record = ring.poll();
+		if (record == null)
+			return false;
+		
+		try
+		{
+			//bound each batch, so constant appends can't hold back the acknowledgements forever
+			int count = 0;
+			do
+			{
+				written.add(record.future);
+				put(record.bytes);
+			}
+			while (++count < MAX_BATCH_RECORDS && (record = ring.poll()) != null);
+			
+			writeBatch();
+		}
+		catch (IOException | RuntimeException e)
+		{
+			((Buffer) batch).clear();
+			fail(written, e);
+			return true;
+		}
+		
+		switch (fsyncPolicy)
+		{
+			case NEVER:
+				complete(written);
+				break;
+			
+			case EVERY_BATCH:
+				awaitingSync.addAll(written);
+				written.clear();
+				sync();
+				break;
+			
+			case INTERVAL:
+				awaitingSync.addAll(written);
+				written.clear();
+				
+				if (System.nanoTime() - lastSync >= fsyncIntervalNanos)
+					sync();
+				break;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Copies a record into the batch, writing the batch out first if it doesn't fit
+	 *
+	 * @param bytes the record contents
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void put(byte[] bytes) throws IOException
+	{
+		if (bytes.length > batch.remaining())
+			writeBatch();
+		
+		if (bytes.length > batch.capacity())
+			writeFully(ByteBuffer.wrap(bytes));
+		else
+			batch.put(bytes);
+	}
+	
+	/**
+	 * Writes the collected batch to the file and clears it
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeBatch() throws IOException
+	{
+		if (batch.position() == 0)
+			return;
+		
+		((Buffer) batch).flip();
+		writeFully(batch);
+		((Buffer) batch).clear();
+	}
+	
+	/**
+	 * Writes every remaining byte of a buffer to the file
+	 *
+	 * @param source the buffer to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeFully(ByteBuffer source) throws IOException
+	{
+		while (source.hasRemaining())
+			channel.write(source);
+	}
+	
+	/**
+	 * Forces the file to the storage device and completes every record waiting on it
+	 */
+	private void sync()
+	{
+		lastSync = System.nanoTime();
+		
+		try
+		{
+			channel.force(false);
+			complete(awaitingSync);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			fail(awaitingSync, e);
+		}
+	}
+	
+	/**
+	 * @return how long the writer can sleep before it has work to do
+	 */
+	private long parkNanos()
+	{
+		if (fsyncPolicy != FsyncPolicy.INTERVAL || awaitingSync.isEmpty())
+			return IDLE_PARK_NANOS;
+		
+		return Math.max(1, fsyncIntervalNanos - (System.nanoTime() - lastSync));
+	}
+	
+	/**
+	 * Completes and clears a list of futures
+	 *
+	 * @param futures the futures to complete
+	 */
+	private static void complete(List<CompletableFuture<Void>> futures)
+	{
+		for (CompletableFuture<Void> future : futures)
+			future.complete(null);
+		
+		futures.clear();
+	}
+	
+	/**
+	 * Fails and clears a list of futures
+	 *
+	 * @param futures the futures to fail
+	 * @param cause the error to fail them with
+	 */
+	private static void fail(List<CompletableFuture<Void>> futures, Throwable cause)
+	{
+		for (CompletableFuture<Void> future : futures)
+			future.completeExceptionally(cause);
+		
+		futures.clear();
+	}
+	
+	/**
+	 * A queued append and its durability acknowledgement
+	 */
+	private static class Record
+	{
+		private final byte[] bytes;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		
+		private Record(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads many files at once with bounded parallelism, so loading N files costs about the slowest read instead of the sum of them.
+ * A fixed number of workers claim files from a shared counter, the calling thread works alongside them,
+ * and it only waits for files that have been claimed, so a batch can never deadlock on a busy or shut down executor.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class BatchReader
+{
+	static final int MAX_PARALLELISM = 64;
+	
+	/**
+	 * Reads every file, keeping the results in the order of the collection
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @param executor the executor to run the workers on
+	 * @param reader reads a single file
+	 * @param <T> the result of reading a file
+	 * @param <X> the decoding exception the reader may throw
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files, or the calling thread is interrupted
+	 * @throws X if any of the files can't be decoded
+	 */
+	static <T, X extends Exception> Map<File, T> readAll(Collection<File> files, ExecutorService executor, Reader<T, X> reader) throws IOException, X
+	{
+		List<File> list = new ArrayList<>(new LinkedHashSet<>(files));
+		Batch<T, X> batch = new Batch<>(list, reader);
+		
+		//the calling thread is one of the workers
+		int workers = Math.min(list.size(), MAX_PARALLELISM) - 1;
+		for (int i = 0; i < workers; i++)
+		{
+			try
+			{
+				executor.execute(batch::work);
+			}
+			catch (RejectedExecutionException e)
+			{
+				//the calling thread will read whatever no worker claims
+				break;
+			}
+		}
+		
+		batch.work();
+		batch.await();
+		
+		Map<File, T> results = new LinkedHashMap<>();
+		for (int i = 0; i < list.size(); i++)
+			results.put(list.get(i), batch.results.get(i));
+		
+		return results;
+	}
+	
+	/**
+	 * Reads a single file of a batch
+	 *
+	 * @param <T> the result of reading a file
+	 * @param <X> the decoding exception the reader may throw
+	 */
+	interface Reader<T, X extends Exception>
+	{
+		/**
+		 * @param file the file to read
+		 * @return the file contents
+		 * @throws IOException if an I/O error occurs
+		 * @throws X if the contents can't be decoded
+		 */
+		T read(File file) throws IOException, X;
+	}
+	
+	/**
+	 * The shared state of one readAll call
+	 */
+	private static class Batch<T, X extends Exception>
+	{
+		private final List<File> files;
+		private final Reader<T, X> reader;
+		private final List<T> results;
+		private final AtomicInteger next = new AtomicInteger();
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+		private final CountDownLatch remaining;
+		
+		private Batch(List<File> files, Reader<T, X> reader)
+		{
+			this.files = files;
+			this.reader = reader;
+			this.results = new ArrayList<>(files.size());
+			this.remaining = new CountDownLatch(files.size());
+			
+			for (int i = 0; i < files.size(); i++)
+				results.add(null);
+		}
+		
+		/**
+		 * Claims and reads files until there are none left, or one of the reads has failed
+		 */
+		private void work()
+		{
+			int index;
+			while ((index = next.getAndIncrement()) < files.size())
+			{
+				try
+				{
+					//each index is only written by the worker that claimed it, the latch publishes it to the caller
+					if (failure.get() == null)
+						results.set(index, reader.read(files.get(index)));
+				}
+				catch (Throwable t)
+				{
+					failure.compareAndSet(null, t);
+				}
+				finally
+				{
+					remaining.countDown();
+				}
+			}
+		}
+		
+		/**
+		 * Waits for every claimed file, then rethrows the first failure
+		 *
+		 * @throws IOException if an I/O error occurred, or the calling thread is interrupted
+		 * @throws X if a file couldn't be decoded
+		 */
+		@SuppressWarnings("unchecked")
+		private void await() throws IOException, X
+		{
+			try
+			{
+				remaining.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				failure.compareAndSet(null, new InterruptedIOException("Interrupted while reading files"));
+			}
+			
+			Throwable t = failure.get();
+			if (t == null)
+				return;
+			
+			if (t instanceof IOException)
+				throw (IOException) t;
+			
+			if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+			
+			if (t instanceof Error)
+				throw (Error) t;
+			
+			throw (X) t;
+		}
+	}
+}
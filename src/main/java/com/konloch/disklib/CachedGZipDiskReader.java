@@ -0,0 +1,203 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.zip.DataFormatException;
+
+/**
+ * Read-through cache in front of GZipDiskReader, a hit skips both the disk read and the decompression.
+ * Entries are keyed by canonical path and revalidated against the compressed file's last modified time and size on every read.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class CachedGZipDiskReader
+{
+	private final DiskCache cache;
+	
+	/**
+	 * @param maxBytes the most bytes the cache may hold
+	 */
+	CachedGZipDiskReader(long maxBytes)
+	{
+		this.cache = new DiskCache(maxBytes);
+	}
+	
+	/**
+	 * Decompress and load a file into a String Array from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return String Array with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public String[] readArray(String filePath) throws IOException, DataFormatException
+	{
+		return readArray(new File(filePath));
+	}
+	
+	/**
+	 * Decompress and load a file into a String Array from a File object
+	 *
+	 * @param file any valid file object
+	 * @return String Array with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public String[] readArray(File file) throws IOException, DataFormatException
+	{
+		return entry(file).lines().toArray(new String[0]);
+	}
+	
+	/**
+	 * Decompress and load a file into a byte Array from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a copy of the cached decompressed contents
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public byte[] readBytes(String filePath) throws IOException, DataFormatException
+	{
+		return readBytes(new File(filePath));
+	}
+	
+	/**
+	 * Decompress and load a file into a byte Array from a File object
+	 *
+	 * @param file any valid file object
+	 * @return a copy of the cached decompressed contents
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public byte[] readBytes(File file) throws IOException, DataFormatException
+	{
+		return entry(file).bytes().clone();
+	}
+	
+	/**
+	 * Decompress and load a file into a String from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public String readString(String filePath) throws IOException, DataFormatException
+	{
+		return readString(new File(filePath));
+	}
+	
+	/**
+	 * Decompress and load a file into a String from a File object
+	 *
+	 * @param file any valid file object
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public String readString(File file) throws IOException, DataFormatException
+	{
+		return entry(file).string();
+	}
+	
+	/**
+	 * Decompress and load a file into a String ArrayList from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a new String ArrayList with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public ArrayList<String> read(String filePath) throws IOException, DataFormatException
+	{
+		return read(new File(filePath));
+	}
+	
+	/**
+	 * Decompress and load a file into a String ArrayList from a File object
+	 *
+	 * @param file any valid file object
+	 * @return a new String ArrayList with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public ArrayList<String> read(File file) throws IOException, DataFormatException
+	{
+		return new ArrayList<>(entry(file).lines());
+	}
+	
+	/**
+	 * Drops the cached contents of a file, if there are any
+	 *
+	 * @param filePath any valid file path
+	 * @throws IOException if an I/O error occurs resolving the canonical path
+	 */
+	public void invalidate(String filePath) throws IOException
+	{
+		invalidate(new File(filePath));
+	}
+	
+	/**
+	 * Drops the cached contents of a file, if there are any
+	 *
+	 * @param file any valid file object
+	 * @throws IOException if an I/O error occurs resolving the canonical path
+	 */
+	public void invalidate(File file) throws IOException
+	{
+		cache.invalidate(file);
+	}
+	
+	/**
+	 * Drops every cached file
+	 */
+	public void clear()
+	{
+		cache.clear();
+	}
+	
+	/**
+	 * @return the number of reads served from the cache
+	 */
+	public long getHits()
+	{
+		return cache.getHits();
+	}
+	
+	/**
+	 * @return the number of reads that had to read and decompress the file
+	 */
+	public long getMisses()
+	{
+		return cache.getMisses();
+	}
+	
+	/**
+	 * @return the number of files dropped to stay within the byte budget
+	 */
+	public long getEvictions()
+	{
+		return cache.getEvictions();
+	}
+	
+	/**
+	 * @return the estimated number of bytes currently cached
+	 */
+	public long getSize()
+	{
+		return cache.getSize();
+	}
+	
+	/**
+	 * @param file any valid file object
+	 * @return the up to date cache entry for the file
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	private DiskCache.Entry entry(File file) throws IOException, DataFormatException
+	{
+		return cache.get(file, GZipDiskReader::readBytes);
+	}
+}
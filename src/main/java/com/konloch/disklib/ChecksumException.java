@@ -0,0 +1,22 @@
+package com.konloch.disklib;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file read back with verification doesn't match the checksum stored when it was written
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class ChecksumException extends IOException
+{
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * @param message describes the file and the mismatch
+	 */
+	public ChecksumException(String message)
+	{
+		super(message);
+	}
+}
@@ -0,0 +1,43 @@
+package com.konloch.disklib;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * A compression codec usable with CompressedDiskWriter and CompressedDiskReader.
+ * Implementations are discovered with ServiceLoader, list them in META-INF/services/com.konloch.disklib.Codec,
+ * or add them at runtime with Codecs.register. A single instance is shared by every thread, so implementations must be thread safe.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public interface Codec
+{
+	/**
+	 * The name stored in the header of every compressed file, so the reader can pick the same codec.
+	 * It must be unique, at most 255 ASCII characters, and never change once files have been written with it.
+	 *
+	 * @return the name of the codec
+	 */
+	String getName();
+	
+	/**
+	 * Compress a range of a byte Array
+	 *
+	 * @param data byte Array of any size
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @return compressed byte Array
+	 */
+	byte[] compress(byte[] data, int offset, int length);
+	
+	/**
+	 * Decompress a range of a byte Array produced by compress
+	 *
+	 * @param data compressed byte Array
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @return decompressed byte Array
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	byte[] decompress(byte[] data, int offset, int length) throws DataFormatException;
+}
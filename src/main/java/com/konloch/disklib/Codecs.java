@@ -0,0 +1,65 @@
+package com.konloch.disklib;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of every Codec CompressedDiskReader can read, keyed by name.
+ * It holds the built in GZipCodec and LZCodec, every Codec listed in META-INF/services/com.konloch.disklib.Codec,
+ * and any registered at runtime.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class Codecs
+{
+	private static final Map<String, Codec> CODECS = new ConcurrentHashMap<>();
+	
+	static
+	{
+		//the built in codecs are added directly, so they still work when repackaging has dropped the service file
+		register(new GZipCodec());
+		register(new LZCodec());
+		
+		for (Codec codec : ServiceLoader.load(Codec.class))
+			if (!CODECS.containsKey(codec.getName()))
+				register(codec);
+	}
+	
+	/**
+	 * Looks up a codec by the name stored in a compressed file's header
+	 *
+	 * @param name the name of the codec
+	 * @return the codec, or null if none is registered with that name
+	 */
+	public static Codec get(String name)
+	{
+		return CODECS.get(name);
+	}
+	
+	/**
+	 * Adds or replaces a codec, for codecs that can't be listed in a service file
+	 *
+	 * @param codec the codec to register under its name
+	 */
+	public static void register(Codec codec)
+	{
+		String name = codec.getName();
+		if (name == null || name.isEmpty() || name.length() > 255 || !StandardCharsets.US_ASCII.newEncoder().canEncode(name))
+			throw new IllegalArgumentException("Codec names must be 1 to 255 ASCII characters: " + name);
+		
+		CODECS.put(name, codec);
+	}
+	
+	/**
+	 * @return every registered codec
+	 */
+	public static Collection<Codec> all()
+	{
+		return Collections.unmodifiableCollection(CODECS.values());
+	}
+}
@@ -0,0 +1,169 @@
+package com.konloch.disklib;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * Reads files written by CompressedDiskWriter, decompressing each one with the Codec named in its header
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class CompressedDiskReader
+{
+	/**
+	 * Decompresses and loads a file into a String ArrayList from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return String ArrayList with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static ArrayList<String> read(String filePath) throws IOException, DataFormatException
+	{
+		return read(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a String ArrayList from a File object
+	 *
+	 * @param file the file object to open
+	 * @return String ArrayList with the file content lines
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static ArrayList<String> read(File file) throws IOException, DataFormatException
+	{
+		ArrayList<String> array = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new StringReader(readString(file))))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+				array.add(line);
+		}
+		
+		return array;
+	}
+	
+	/**
+	 * Decompresses and loads a file into a String from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static String readString(String filePath) throws IOException, DataFormatException
+	{
+		return readString(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a String from a File object
+	 *
+	 * @param file the file object to open
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static String readString(File file) throws IOException, DataFormatException
+	{
+		return new String(readBytes(file), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Decompresses and loads a file into a byte Array from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytes(String filePath) throws IOException, DataFormatException
+	{
+		return readBytes(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a byte Array from a File object
+	 *
+	 * @param file the file object to open
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytes(File file) throws IOException, DataFormatException
+	{
+		byte[] data = Files.readAllBytes(file.toPath());
+		Codec codec = codec(file, data);
+		int offset = 5 + (data[4] & 0xFF);
+		return codec.decompress(data, offset, data.length - offset);
+	}
+	
+	/**
+	 * Returns the Codec a file was compressed with from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return the codec named in the file's header
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 */
+	public static Codec getCodec(String filePath) throws IOException
+	{
+		return getCodec(new File(filePath));
+	}
+	
+	/**
+	 * Returns the Codec a file was compressed with from a File object, only the header is read
+	 *
+	 * @param file the file object to open
+	 * @return the codec named in the file's header
+	 * @throws IOException if an I/O error occurs reading from the stream, or the file's codec isn't registered
+	 */
+	public static Codec getCodec(File file) throws IOException
+	{
+		byte[] header = new byte[5 + 255];
+		int length = 0;
+		
+		try (InputStream in = Files.newInputStream(file.toPath()))
+		{
+			int read;
+			while (length < header.length && (read = in.read(header, length, header.length - length)) != -1)
+				length += read;
+		}
+		
+		return codec(file, Arrays.copyOf(header, length));
+	}
+	
+	/**
+	 * Validates a compressed file header and looks up its codec
+	 *
+	 * @param file the file the header was read from
+	 * @param data the start of the file
+	 * @return the codec named in the header
+	 * @throws IOException if the file isn't a compressed file, or its codec isn't registered
+	 */
+	private static Codec codec(File file, byte[] data) throws IOException
+	{
+		if (data.length < 5 || ((data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | (data[3] & 0xFF)) != CompressedDiskWriter.MAGIC)
+			throw new IOException("Not a compressed file: " + file);
+		
+		int nameLength = data[4] & 0xFF;
+		if (data.length < 5 + nameLength)
+			throw new IOException("Corrupt compressed file header: " + file);
+		
+		String name = new String(data, 5, nameLength, StandardCharsets.US_ASCII);
+		Codec codec = Codecs.get(name);
+		if (codec == null)
+			throw new IOException("Unknown codec " + name + ", it must be registered with Codecs: " + file);
+		
+		return codec;
+	}
+}
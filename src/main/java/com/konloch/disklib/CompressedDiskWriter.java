@@ -0,0 +1,117 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes files compressed with any Codec, for reading back with CompressedDiskReader.
+ * Every file starts with a small header naming its codec, so readers never need to be told which one was used:
+ *
+ * <pre>
+ * [int magic][byte name length][codec name][compressed data]
+ * </pre>
+ *
+ * Use LZCodec where speed matters more than ratio, and GZipCodec where ratio matters more.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class CompressedDiskWriter
+{
+	static final int MAGIC = 0x444C435A; //DLCZ
+	
+	/**
+	 * Compresses and writes a String to the specified file with the specified codec.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param line String to write
+	 * @param codec the codec to compress with
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(String file, String line, Codec codec) throws IOException
+	{
+		write(new File(file), line, codec);
+	}
+	
+	/**
+	 * Compresses and writes a String to the specified file with the specified codec.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param line String to write
+	 * @param codec the codec to compress with
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(File file, String line, Codec codec) throws IOException
+	{
+		write(file, line.getBytes(StandardCharsets.UTF_8), codec);
+	}
+	
+	/**
+	 * Compresses and writes a byte Array to the specified file with the specified codec.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @param codec the codec to compress with
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(String file, byte[] fileContents, Codec codec) throws IOException
+	{
+		write(new File(file), fileContents, codec);
+	}
+	
+	/**
+	 * Compresses and writes a byte Array to the specified file with the specified codec.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param fileContents byte Array of any size
+	 * @param codec the codec to compress with, it should be registered with Codecs wherever the file is read
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(File file, byte[] fileContents, Codec codec) throws IOException
+	{
+		byte[] header = header(codec);
+		byte[] compressed = codec.compress(fileContents, 0, fileContents.length);
+		
+		FileOutputStream writer = null;
+		try
+		{
+			writer = new FileOutputStream(file);
+			writer.write(header);
+			writer.write(compressed);
+		}
+		finally
+		{
+			if (writer != null)
+				try
+				{
+					writer.close();
+				} catch (Exception ex) {}
+		}
+	}
+	
+	/**
+	 * @param codec the codec the file is compressed with
+	 * @return the file header naming the codec
+	 */
+	private static byte[] header(Codec codec)
+	{
+		byte[] name = codec.getName().getBytes(StandardCharsets.US_ASCII);
+		if (name.length == 0 || name.length > 255)
+			throw new IllegalArgumentException("Codec names must be 1 to 255 ASCII characters: " + codec.getName());
+		
+		byte[] header = new byte[5 + name.length];
+		header[0] = (byte) (MAGIC >>> 24);
+		header[1] = (byte) (MAGIC >>> 16);
+		header[2] = (byte) (MAGIC >>> 8);
+		header[3] = (byte) MAGIC;
+		header[4] = (byte) name.length;
+		System.arraycopy(name, 0, header, 5, name.length);
+		return header;
+	}
+}
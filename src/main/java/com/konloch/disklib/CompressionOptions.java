@@ -0,0 +1,247 @@
+package com.konloch.disklib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+/**
+ * Compression settings used by GZip and GZipDiskWriter
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class CompressionOptions
+{
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+	
+	/**
+	 * The container the compressed data is written in
+	 */
+	public enum Format
+	{
+		/**
+		 * RFC 1950 ZLib, a two byte header and an Adler-32 trailer, what GZip has always written
+		 */
+		ZLIB,
+		
+		/**
+		 * RFC 1952 gzip, a ten byte header and a CRC-32 and size trailer, readable by gzip, zcat and other tools
+		 */
+		GZIP
+	}
+	
+	private Format format = Format.ZLIB;
+	private int level = Deflater.DEFAULT_COMPRESSION;
+	private int strategy = Deflater.DEFAULT_STRATEGY;
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	private int blockSize;
+	private ForkJoinPool pool;
+	private GZipDictionary dictionary;
+	
+	/**
+	 * Options that write real gzip files, readable by gzip, zcat and other tools
+	 *
+	 * @return new CompressionOptions using Format.GZIP
+	 */
+	public static CompressionOptions gzip()
+	{
+		return new CompressionOptions().setFormat(Format.GZIP);
+	}
+	
+	/**
+	 * Options tuned for speed, such as hot logs
+	 *
+	 * @return new CompressionOptions using Deflater.BEST_SPEED
+	 */
+	public static CompressionOptions fastest()
+	{
+		return new CompressionOptions().setLevel(Deflater.BEST_SPEED);
+	}
+	
+	/**
+	 * Options tuned for size, such as archives
+	 *
+	 * @return new CompressionOptions using Deflater.BEST_COMPRESSION
+	 */
+	public static CompressionOptions smallest()
+	{
+		return new CompressionOptions().setLevel(Deflater.BEST_COMPRESSION);
+	}
+	
+	/**
+	 * Options that compress large inputs as blocks in parallel on the common ForkJoinPool
+	 *
+	 * @return new CompressionOptions using DEFAULT_BLOCK_SIZE parallel blocks
+	 */
+	public static CompressionOptions parallel()
+	{
+		return new CompressionOptions().setBlockSize(DEFAULT_BLOCK_SIZE);
+	}
+	
+	/**
+	 * @return the container the compressed data is written in
+	 */
+	public Format getFormat()
+	{
+		return format;
+	}
+	
+	/**
+	 * Sets the container the compressed data is written in.
+	 * Reading detects the format of every member on its own, so both can be mixed in one file.
+	 *
+	 * @param format Format.ZLIB or Format.GZIP
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setFormat(Format format)
+	{
+		if (format == null)
+			throw new IllegalArgumentException("Format must not be null");
+		
+		if (format == Format.GZIP && dictionary != null)
+			throw new IllegalArgumentException("Dictionaries are only supported by Format.ZLIB");
+		
+		this.format = format;
+		return this;
+	}
+	
+	/**
+	 * @return the compression level, from Deflater.BEST_SPEED through Deflater.BEST_COMPRESSION,
+	 * or Deflater.DEFAULT_COMPRESSION
+	 */
+	public int getLevel()
+	{
+		return level;
+	}
+	
+	/**
+	 * Sets the compression level
+	 *
+	 * @param level Deflater.BEST_SPEED through Deflater.BEST_COMPRESSION, or Deflater.DEFAULT_COMPRESSION
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setLevel(int level)
+	{
+		if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)
+				&& level != Deflater.NO_COMPRESSION && level != Deflater.DEFAULT_COMPRESSION)
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+		
+		this.level = level;
+		return this;
+	}
+	
+	/**
+	 * @return the compression strategy, Deflater.DEFAULT_STRATEGY, Deflater.FILTERED or Deflater.HUFFMAN_ONLY
+	 */
+	public int getStrategy()
+	{
+		return strategy;
+	}
+	
+	/**
+	 * Sets the compression strategy
+	 *
+	 * @param strategy Deflater.DEFAULT_STRATEGY, Deflater.FILTERED or Deflater.HUFFMAN_ONLY
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setStrategy(int strategy)
+	{
+		if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED && strategy != Deflater.HUFFMAN_ONLY)
+			throw new IllegalArgumentException("Invalid compression strategy: " + strategy);
+		
+		this.strategy = strategy;
+		return this;
+	}
+	
+	/**
+	 * @return the size of each compressed output chunk
+	 */
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+	
+	/**
+	 * Sets the size of each compressed output chunk
+	 *
+	 * @param bufferSize any positive size in bytes
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setBufferSize(int bufferSize)
+	{
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException("Buffer size must be positive");
+		
+		this.bufferSize = bufferSize;
+		return this;
+	}
+	
+	/**
+	 * @return the size of each block compressed in parallel, or 0 if parallel compression is disabled
+	 */
+	public int getBlockSize()
+	{
+		return blockSize;
+	}
+	
+	/**
+	 * Sets the size of each block compressed in parallel.
+	 * Inputs larger than one block are split and compressed on the ForkJoinPool, still producing a single stream.
+	 *
+	 * @param blockSize any positive size in bytes, or 0 to compress on the calling thread
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setBlockSize(int blockSize)
+	{
+		if (blockSize < 0)
+			throw new IllegalArgumentException("Block size must not be negative");
+		
+		this.blockSize = blockSize;
+		return this;
+	}
+	
+	/**
+	 * @return the pool parallel blocks are compressed on
+	 */
+	public ForkJoinPool getPool()
+	{
+		return pool != null ? pool : ForkJoinPool.commonPool();
+	}
+	
+	/**
+	 * Sets the pool parallel blocks are compressed on, the common ForkJoinPool is used by default
+	 *
+	 * @param pool any ForkJoinPool
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setPool(ForkJoinPool pool)
+	{
+		this.pool = pool;
+		return this;
+	}
+	
+	/**
+	 * @return the preset dictionary, or null if compression starts from an empty window
+	 */
+	public GZipDictionary getDictionary()
+	{
+		return dictionary;
+	}
+	
+	/**
+	 * Sets a preset dictionary, for many small similar files that share little within themselves but a lot with each other.
+	 * Its id is stored in the ZLib header, so it must be registered with GZipDictionary.register wherever the files are read.
+	 * Only Format.ZLIB can carry a dictionary id, and input is compressed on the calling thread even when a block size is set.
+	 *
+	 * @param dictionary any GZipDictionary, or null to start from an empty window
+	 * @return this CompressionOptions
+	 */
+	public CompressionOptions setDictionary(GZipDictionary dictionary)
+	{
+		if (dictionary != null && format == Format.GZIP)
+			throw new IllegalArgumentException("Dictionaries are only supported by Format.ZLIB");
+		
+		this.dictionary = dictionary;
+		return this;
+	}
+}
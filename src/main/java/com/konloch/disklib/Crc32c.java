@@ -0,0 +1,191 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Checksum;
+
+/**
+ * CRC-32C (Castagnoli) checksums and the sidecar files that hold them.
+ * On Java 9+ java.util.zip.CRC32C is used, which the JIT turns into the SSE 4.2 / ARMv8 CRC32C instructions,
+ * Java 8 falls back to this pure Java slicing-by-8 implementation producing the same values.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class Crc32c implements Checksum
+{
+	static final String SIDECAR_EXTENSION = ".crc32c";
+	
+	private static final int POLYNOMIAL = 0x82F63B78;
+	private static final int[][] TABLES = buildTables();
+	private static final Constructor<?> INTRINSIC = findIntrinsic();
+	
+	private int crc = 0xFFFFFFFF;
+	
+	/**
+	 * @return a new CRC-32C Checksum, hardware accelerated where the JVM supports it
+	 */
+	static Checksum newChecksum()
+	{
+		if (INTRINSIC != null)
+		{
+			try
+			{
+				return (Checksum) INTRINSIC.newInstance();
+			}
+			catch (ReflectiveOperationException e)
+			{
+				//fall through to the pure Java implementation
+			}
+		}
+		
+		return new Crc32c();
+	}
+	
+	/**
+	 * @param data byte Array of any size
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @return the CRC-32C of the range
+	 */
+	static long checksum(byte[] data, int offset, int length)
+	{
+		Checksum checksum = newChecksum();
+		checksum.update(data, offset, length);
+		return checksum.getValue();
+	}
+	
+	/**
+	 * @param file the file the checksum covers
+	 * @return the sidecar file holding its checksum
+	 */
+	static File sidecar(File file)
+	{
+		return new File(file.getPath() + SIDECAR_EXTENSION);
+	}
+	
+	/**
+	 * Stores the checksum of a file in its sidecar, as eight lowercase hex digits
+	 *
+	 * @param file the file the checksum covers
+	 * @param checksum the CRC-32C of the file contents
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void writeSidecar(File file, long checksum) throws IOException
+	{
+		Files.write(sidecar(file).toPath(), String.format("%08x%n", checksum).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Compares file contents that have just been read against the checksum in the file's sidecar
+	 *
+	 * @param file the file the contents were read from
+	 * @param checksum the CRC-32C of the contents, computed as they were read
+	 * @throws IOException if the sidecar can't be read
+	 * @throws ChecksumException if the sidecar is malformed or the checksum doesn't match
+	 */
+	static void verify(File file, long checksum) throws IOException
+	{
+		String stored = new String(Files.readAllBytes(sidecar(file).toPath()), StandardCharsets.UTF_8).trim();
+		
+		long expected;
+		try
+		{
+			expected = Long.parseLong(stored, 16);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new ChecksumException("Malformed checksum sidecar for " + file);
+		}
+		
+		if (expected != checksum)
+			throw new ChecksumException(String.format("Checksum mismatch for %s, expected %08x but read %08x", file, expected, checksum));
+	}
+	
+	@Override
+	public void update(int b)
+	{
+		crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xFF];
+	}
+	
+	@Override
+	public void update(byte[] b, int off, int len)
+	{
+		int[] t0 = TABLES[0], t1 = TABLES[1], t2 = TABLES[2], t3 = TABLES[3];
+		int[] t4 = TABLES[4], t5 = TABLES[5], t6 = TABLES[6], t7 = TABLES[7];
+		int value = crc;
+		
+		//slicing-by-8, each step folds eight input bytes through eight tables at once
+		while (len >= 8)
+		{
+			int low = value ^ ((b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24);
+			int high = (b[off + 4] & 0xFF) | (b[off + 5] & 0xFF) << 8 | (b[off + 6] & 0xFF) << 16 | (b[off + 7] & 0xFF) << 24;
+			
+			value = t7[low & 0xFF] ^ t6[(low >>> 8) & 0xFF] ^ t5[(low >>> 16) & 0xFF] ^ t4[low >>> 24]
+					^ t3[high & 0xFF] ^ t2[(high >>> 8) & 0xFF] ^ t1[(high >>> 16) & 0xFF] ^ t0[high >>> 24];
+			
+			off += 8;
+			len -= 8;
+		}
+		
+		while (len-- > 0)
+			value = (value >>> 8) ^ t0[(value ^ b[off++]) & 0xFF];
+		
+		crc = value;
+	}
+	
+	@Override
+	public long getValue()
+	{
+		return ~crc & 0xFFFFFFFFL;
+	}
+	
+	@Override
+	public void reset()
+	{
+		crc = 0xFFFFFFFF;
+	}
+	
+	/**
+	 * @return the eight lookup tables for the reflected Castagnoli polynomial
+	 */
+	private static int[][] buildTables()
+	{
+		int[][] tables = new int[8][256];
+		
+		for (int i = 0; i < 256; i++)
+		{
+			int value = i;
+			for (int bit = 0; bit < 8; bit++)
+				value = (value & 1) != 0 ? (value >>> 1) ^ POLYNOMIAL : value >>> 1;
+			
+			tables[0][i] = value;
+		}
+		
+		for (int table = 1; table < 8; table++)
+			for (int i = 0; i < 256; i++)
+				tables[table][i] = (tables[table - 1][i] >>> 8) ^ tables[0][tables[table - 1][i] & 0xFF];
+		
+		return tables;
+	}
+	
+	/**
+	 * Looks up java.util.zip.CRC32C reflectively, so this still compiles and runs on Java 8
+	 *
+	 * @return the CRC32C constructor, or null before Java 9
+	 */
+	private static Constructor<?> findIntrinsic()
+	{
+		try
+		{
+			return Class.forName("java.util.zip.CRC32C").getConstructor();
+		}
+		catch (ReflectiveOperationException | LinkageError e)
+		{
+			return null;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package com.konloch.disklib;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived buffered appender, holding the file open between appends.
+ * Appends are collected in a direct buffer and written once it fills, once the flush interval passes, or on flush().
+ * The flush interval is kept by a shared daemon thread, so the last appends before traffic stops are still written.
+ * Strings are encoded in chunks through a reused char buffer straight into the write buffer, so appending doesn't allocate.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class DiskAppender implements Closeable, Flushable
+{
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+	
+	private static final int MIN_BUFFER_SIZE = 16;
+	private static final int CHAR_BUFFER_SIZE = 1024;
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+	
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final CharBuffer chars;
+	private final CharsetEncoder encoder;
+	private final long flushIntervalNanos;
+	private final ScheduledFuture<?> flushTask;
+	private long lastFlush;
+	private IOException flushFailure;
+	private boolean closed;
+	
+	/**
+	 * Opens the file for appending, if the file doesn't exist it will automatically create it
+	 *
+	 * @param file the file object to open
+	 * @param bufferSize the size of the direct write buffer, at least 16 bytes
+	 * @param flushIntervalMillis the longest time buffered appends wait before being written, or 0 to only flush when full
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	DiskAppender(File file, int bufferSize, long flushIntervalMillis) throws IOException
+	{
+		//the buffer must always have room for at least one encoded character
+		if (bufferSize < MIN_BUFFER_SIZE)
+			throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + " bytes");
+		
+		if (flushIntervalMillis < 0)
+			throw new IllegalArgumentException("Flush interval must not be negative");
+		
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+		this.encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+		this.lastFlush = System.nanoTime();
+		this.flushTask = flushIntervalMillis > 0
+				? DiskExecutors.scheduler().scheduleWithFixedDelay(this::flushScheduled, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS)
+				: null;
+	}
+	
+	/**
+	 * Appends a String to the file
+	 *
+	 * @param line String to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public synchronized void append(String line) throws IOException
+	{
+		append(line, false);
+	}
+	
+	/**
+	 * Appends a String to the file
+	 *
+	 * @param line String to write
+	 * @param appendNewLine true to append a new line
+	 * @throws IOException if an I/O error occurs
+	 */
+	public synchronized void append(String line, boolean appendNewLine) throws IOException
+	{
+		ensureOpen();
+		
+		//encode straight into the write buffer a chunk at a time, writing it out whenever it fills
+		encoder.reset();
+		((Buffer) chars).clear();
+		
+		int next = 0;
+		while (true)
+		{
+			//the chunk goes after anything the encoder left behind, such as the first half of a surrogate pair
+			int count = Math.min(chars.remaining(), line.length() - next);
+			line.getChars(next, next + count, chars.array(), chars.position());
+			((Buffer) chars).position(chars.position() + count);
+			((Buffer) chars).flip();
+			next += count;
+			
+			boolean last = next == line.length();
+			CoderResult result;
+			while ((result = encoder.encode(chars, buffer, last)).isOverflow())
+				writeBuffer();
+			
+			if (result.isError())
+				result.throwException();
+			
+			if (last)
+				break;
+			
+			chars.compact();
+		}
+		
+		while (encoder.flush(buffer).isOverflow())
+			writeBuffer();
+		
+		if (appendNewLine)
+			put(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+		
+		flushIfDue();
+	}
+	
+	/**
+	 * Appends a byte Array to the file
+	 *
+	 * @param bytes byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public synchronized void append(byte[] bytes) throws IOException
+	{
+		append(bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * Appends part of a byte Array to the file
+	 *
+	 * @param bytes byte Array of any size
+	 * @param offset the start of the range to write
+	 * @param length the number of bytes to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public synchronized void append(byte[] bytes, int offset, int length) throws IOException
+	{
+		ensureOpen();
+		put(bytes, offset, length);
+		flushIfDue();
+	}
+	
+	/**
+	 * Writes every buffered append to the file
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public synchronized void flush() throws IOException
+	{
+		ensureOpen();
+		writeBuffer();
+	}
+	
+	/**
+	 * Writes every buffered append to the file and closes it
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (closed)
+			return;
+		
+		try
+		{
+			if (flushTask != null)
+				flushTask.cancel(false);
+			
+			writeBuffer();
+			reportFlushFailure();
+		}
+		finally
+		{
+			closed = true;
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Copies bytes into the write buffer, bypassing it for ranges larger than the buffer
+	 *
+	 * @param bytes byte Array of any size
+	 * @param offset the start of the range to write
+	 * @param length the number of bytes to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void put(byte[] bytes, int offset, int length) throws IOException
+	{
+		if (length > buffer.remaining())
+			writeBuffer();
+		
+		if (length > buffer.capacity())
+		{
+			writeFully(ByteBuffer.wrap(bytes, offset, length));
+			return;
+		}
+		
+		buffer.put(bytes, offset, length);
+	}
+	
+	/**
+	 * Writes the buffer out once the flush interval has passed
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void flushIfDue() throws IOException
+	{
+		if (flushIntervalNanos > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos)
+			writeBuffer();
+	}
+	
+	/**
+	 * Writes any buffered appends from the shared flush thread, which runs once every flush interval,
+	 * so no append waits longer than the interval even when no more appends arrive.
+	 * A failure can't be thrown to anyone here, so it is kept and thrown by the next call on the appender.
+	 */
+	private synchronized void flushScheduled()
+	{
+		if (closed || flushFailure != null || buffer.position() == 0)
+			return;
+		
+		try
+		{
+			writeBuffer();
+		}
+		catch (IOException e)
+		{
+			flushFailure = e;
+		}
+	}
+	
+	/**
+	 * Throws the failure of a scheduled flush, once
+	 *
+	 * @throws IOException if the last scheduled flush failed
+	 */
+	private void reportFlushFailure() throws IOException
+	{
+		IOException failure = flushFailure;
+		if (failure == null)
+			return;
+		
+		flushFailure = null;
+		throw failure;
+	}
+	
+	/**
+	 * Writes the buffered bytes to the file and clears the buffer
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeBuffer() throws IOException
+	{
+		lastFlush = System.nanoTime();
+		
+		if (buffer.position() == 0)
+			return;
+		
+		//cast to Buffer so the call links against Java 8, where flip and clear aren't overridden by ByteBuffer
+		((Buffer) buffer).flip();
+		writeFully(buffer);
+		((Buffer) buffer).clear();
+	}
+	
+	/**
+	 * Writes every remaining byte of a buffer to the file
+	 *
+	 * @param source the buffer to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeFully(ByteBuffer source) throws IOException
+	{
+		while (source.hasRemaining())
+			channel.write(source);
+	}
+	
+	/**
+	 * @throws IOException if the appender has been closed, or the last scheduled flush failed
+	 */
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+			throw new IOException("Appender closed");
+		
+		reportFlushFailure();
+	}
+}
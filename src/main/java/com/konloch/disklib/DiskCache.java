@@ -0,0 +1,305 @@
+package com.konloch.disklib;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of file contents, keyed by canonical path.
+ * Entries are validated against the file's last modified time and size on every lookup,
+ * decoded forms (String and lines) are built on first use and charged to the same byte budget.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class DiskCache
+{
+	//rough per-object overhead, so thousands of tiny files or lines can't slip past the budget
+	private static final int ENTRY_OVERHEAD = 128;
+	private static final int LINE_OVERHEAD = 48;
+	
+	private final long maxBytes;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private long weight;
+	
+	/**
+	 * @param maxBytes the most bytes the cache may hold before evicting the least recently used entries
+	 */
+	DiskCache(long maxBytes)
+	{
+		if (maxBytes <= 0)
+			throw new IllegalArgumentException("Cache size must be positive");
+		
+		this.maxBytes = maxBytes;
+	}
+	
+	/**
+	 * Returns the cached entry for a file, loading it if it is missing or the file has changed
+	 *
+	 * @param file the file object to look up
+	 * @param loader loads the file contents on a miss
+	 * @return the up to date entry
+	 * @throws IOException if an I/O error occurs
+	 * @throws X if the loader fails
+	 */
+	<X extends Exception> Entry get(File file, Loader<X> loader) throws IOException, X
+	{
+		File canonical = file.getCanonicalFile();
+		String key = canonical.getPath();
+		
+		BasicFileAttributes attributes;
+		try
+		{
+			attributes = Files.readAttributes(canonical.toPath(), BasicFileAttributes.class);
+		}
+		catch (IOException e)
+		{
+			invalidate(key);
+			throw e;
+		}
+		
+		synchronized (this)
+		{
+			Entry entry = entries.get(key);
+			if (entry != null)
+			{
+				if (entry.lastModified.equals(attributes.lastModifiedTime()) && entry.size == attributes.size())
+				{
+					hits.incrementAndGet();
+					return entry;
+				}
+				
+				remove(key);
+			}
+		}
+		
+		misses.incrementAndGet();
+		
+		//the attributes were read before loading, so a write racing the load only costs an extra reload later
+		Entry entry = new Entry(key, attributes.lastModifiedTime(), attributes.size(), loader.load(canonical));
+		
+		synchronized (this)
+		{
+			if (entry.weight <= maxBytes)
+			{
+				Entry previous = entries.put(key, entry);
+				if (previous != null)
+					weight -= previous.weight;
+				
+				weight += entry.weight;
+				evict();
+			}
+		}
+		
+		return entry;
+	}
+	
+	/**
+	 * Drops the cached entry for a file, if there is one
+	 *
+	 * @param file the file object to drop
+	 * @throws IOException if an I/O error occurs resolving the canonical path
+	 */
+	void invalidate(File file) throws IOException
+	{
+		invalidate(file.getCanonicalPath());
+	}
+	
+	/**
+	 * Drops every cached entry
+	 */
+	synchronized void clear()
+	{
+		entries.clear();
+		weight = 0;
+	}
+	
+	/**
+	 * @return the number of lookups served from the cache
+	 */
+	long getHits()
+	{
+		return hits.get();
+	}
+	
+	/**
+	 * @return the number of lookups that had to load the file
+	 */
+	long getMisses()
+	{
+		return misses.get();
+	}
+	
+	/**
+	 * @return the number of entries dropped to stay within the byte budget
+	 */
+	long getEvictions()
+	{
+		return evictions.get();
+	}
+	
+	/**
+	 * @return the estimated number of bytes currently held
+	 */
+	synchronized long getSize()
+	{
+		return weight;
+	}
+	
+	/**
+	 * @param key the canonical path to drop
+	 */
+	private synchronized void invalidate(String key)
+	{
+		remove(key);
+	}
+	
+	/**
+	 * @param key the canonical path to drop
+	 */
+	private void remove(String key)
+	{
+		Entry entry = entries.remove(key);
+		if (entry != null)
+			weight -= entry.weight;
+	}
+	
+	/**
+	 * Adds to the weight of an entry once it has decoded more of itself
+	 *
+	 * @param entry the entry that grew
+	 * @param bytes the number of bytes it grew by
+	 */
+	private synchronized void charge(Entry entry, long bytes)
+	{
+		entry.weight += bytes;
+		
+		//an entry that was replaced, evicted or never fit isn't part of the cache's weight
+		if (entries.get(entry.key) != entry)
+			return;
+		
+		weight += bytes;
+		evict();
+	}
+	
+	/**
+	 * Drops the least recently used entries until the cache is within its byte budget
+	 */
+	private void evict()
+	{
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (weight > maxBytes && iterator.hasNext())
+		{
+			weight -= iterator.next().weight;
+			iterator.remove();
+			evictions.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Loads the contents of a file on a cache miss
+	 */
+	interface Loader<X extends Exception>
+	{
+		/**
+		 * @param file the canonical file to load
+		 * @return the file contents
+		 * @throws IOException if an I/O error occurs
+		 * @throws X if the contents can't be decoded
+		 */
+		byte[] load(File file) throws IOException, X;
+	}
+	
+	/**
+	 * The cached contents of one file, at one last modified time and size
+	 */
+	class Entry
+	{
+		private final String key;
+		private final FileTime lastModified;
+		private final long size;
+		private final byte[] bytes;
+		private String string;
+		private List<String> lines;
+		private long weight;
+		
+		private Entry(String key, FileTime lastModified, long size, byte[] bytes)
+		{
+			this.key = key;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.bytes = bytes;
+			this.weight = ENTRY_OVERHEAD + bytes.length;
+		}
+		
+		/**
+		 * @return the cached bytes, callers must not modify or hand out this array
+		 */
+		byte[] bytes()
+		{
+			return bytes;
+		}
+		
+		/**
+		 * @return the contents decoded as UTF-8, decoded on first use
+		 */
+		synchronized String string()
+		{
+			if (string == null)
+			{
+				string = new String(bytes, StandardCharsets.UTF_8);
+				charge(this, 2L * string.length());
+			}
+			
+			return string;
+		}
+		
+		/**
+		 * @return the unmodifiable content lines, split the same way DiskReader.read splits them
+		 */
+		synchronized List<String> lines()
+		{
+			if (lines == null)
+			{
+				ArrayList<String> split = new ArrayList<>();
+				long charged = 0;
+				
+				try (BufferedReader reader = new BufferedReader(new StringReader(string())))
+				{
+					String line;
+					while ((line = reader.readLine()) != null)
+					{
+						split.add(line);
+						charged += LINE_OVERHEAD + 2L * line.length();
+					}
+				}
+				catch (IOException e)
+				{
+					//a StringReader never fails
+					throw new UncheckedIOException(e);
+				}
+				
+				split.trimToSize();
+				lines = Collections.unmodifiableList(split);
+				charge(this, charged);
+			}
+			
+			return lines;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.konloch.disklib;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared, bounded thread pools behind the asynchronous and batch reads and writes.
+ * The I/O pool runs the AsynchronousFileChannel operations, the compute pool runs compression and decompression,
+ * so any number of pending operations share a fixed number of daemon threads. Idle threads exit after a minute.
+ * Batch reads run on virtual threads where the JVM has them, and on the I/O pool otherwise.
+ * Timed flushes of buffered writers run on a single scheduler thread.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class DiskExecutors
+{
+	private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+	private static final long KEEP_ALIVE_SECONDS = 60;
+	
+	/**
+	 * @return the pool running AsynchronousFileChannel reads and writes
+	 */
+	static ExecutorService io()
+	{
+		return IOHolder.POOL;
+	}
+	
+	/**
+	 * @return the pool running compression and decompression, one thread per processor
+	 */
+	static ExecutorService compute()
+	{
+		return ComputeHolder.POOL;
+	}
+	
+	/**
+	 * @return the executor for blocking batch reads, virtual threads on Java 21+, otherwise the I/O pool
+	 */
+	static ExecutorService blocking()
+	{
+		return BlockingHolder.POOL;
+	}
+	
+	/**
+	 * @return the single thread running timed flushes, cancelled tasks are removed right away
+	 */
+	static ScheduledExecutorService scheduler()
+	{
+		return SchedulerHolder.POOL;
+	}
+	
+	/**
+	 * Looks up Executors.newVirtualThreadPerTaskExecutor reflectively, so this still compiles and runs on Java 8
+	 *
+	 * @return a virtual thread per task executor, or the I/O pool before Java 21
+	 */
+	private static ExecutorService newBlockingPool()
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException | LinkageError e)
+		{
+			return io();
+		}
+	}
+	
+	/**
+	 * Creates a fixed size pool of daemon threads whose idle threads time out
+	 *
+	 * @param name the prefix of the thread names
+	 * @param threads the maximum number of threads
+	 * @return the new pool
+	 */
+	private static ExecutorService newPool(String name, int threads)
+	{
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable ->
+		{
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+	
+	/**
+	 * Creates a single daemon thread scheduler, which exits after a minute with nothing scheduled
+	 *
+	 * @return the new scheduler
+	 */
+	private static ScheduledExecutorService newScheduler()
+	{
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable ->
+		{
+			Thread thread = new Thread(runnable, "DiskLib-Flush");
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		scheduler.setRemoveOnCancelPolicy(true);
+		scheduler.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+		scheduler.allowCoreThreadTimeOut(true);
+		return scheduler;
+	}
+	
+	//holders, so a pool is only created the first time it is used
+	private static class IOHolder
+	{
+		//file channel operations mostly wait on the disk, so allow more of them than there are processors
+		private static final ExecutorService POOL = newPool("DiskLib-IO", Math.max(8, PROCESSORS * 2));
+	}
+	
+	private static class BlockingHolder
+	{
+		private static final ExecutorService POOL = newBlockingPool();
+	}
+	
+	private static class ComputeHolder
+	{
+		private static final ExecutorService POOL = newPool("DiskLib-Compute", PROCESSORS);
+	}
+	
+	private static class SchedulerHolder
+	{
+		private static final ScheduledExecutorService POOL = newScheduler();
+	}
+}
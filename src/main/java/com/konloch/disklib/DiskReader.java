@@ -2,11 +2,24 @@ package com.konloch.disklib;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Small disk reading util
@@ -16,6 +29,9 @@ import java.util.ArrayList;
  */
 public class DiskReader
 {
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAP_CHUNK_SIZE = Integer.MAX_VALUE;
+	
 	/**
 	 * Load a file into a String Array from a valid String path
 	 *
@@ -64,6 +80,61 @@ public class DiskReader
 		return Files.readAllBytes(file.toPath());
 	}
 	
+	/**
+	 * Load a file into a byte Array from a valid String path, verifying it against the CRC-32C sidecar written by DiskWriter.writeVerified
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the contents don't match the stored checksum
+	 */
+	public static byte[] readBytesVerified(String filePath) throws IOException
+	{
+		return readBytesVerified(new File(filePath));
+	}
+	
+	/**
+	 * Load a file into a byte Array from a File object, verifying it against the CRC-32C sidecar written by DiskWriter.writeVerified.
+	 * The checksum runs over the bytes as read, the file is only read once.
+	 *
+	 * @param file any valid file object
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the contents don't match the stored checksum
+	 */
+	public static byte[] readBytesVerified(File file) throws IOException
+	{
+		byte[] bytes = readBytes(file);
+		Crc32c.verify(file, Crc32c.checksum(bytes, 0, bytes.length));
+		return bytes;
+	}
+	
+	/**
+	 * Load a file into a String from a valid String path, verifying it against the CRC-32C sidecar written by DiskWriter.writeVerified
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the contents don't match the stored checksum
+	 */
+	public static String readStringVerified(String filePath) throws IOException
+	{
+		return readStringVerified(new File(filePath));
+	}
+	
+	/**
+	 * Load a file into a String from a File object, verifying it against the CRC-32C sidecar written by DiskWriter.writeVerified
+	 *
+	 * @param file any valid file object
+	 * @return String with the file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the contents don't match the stored checksum
+	 */
+	public static String readStringVerified(File file) throws IOException
+	{
+		return new String(readBytesVerified(file), StandardCharsets.UTF_8);
+	}
+	
 	/**
 	 * Loads a file into a byte Array from a valid String path
 	 *
@@ -110,34 +181,584 @@ public class DiskReader
 	public static ArrayList<String> read(File file) throws IOException
 	{
 		ArrayList<String> array = new ArrayList<>();
-		
-		String fullString = readString(file);
-		
+		forEachLine(file, array::add);
+		return array;
+	}
+	
+	/**
+	 * Loads a file into a byte Array from a valid String path without blocking the caller
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a future completing with the file contents, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<byte[]> readBytesAsync(String filePath)
+	{
+		return readBytesAsync(new File(filePath));
+	}
+	
+	/**
+	 * Loads a file into a byte Array from a File object without blocking the caller.
+	 * The file is read over an AsynchronousFileChannel on a small shared pool, through pooled direct buffers,
+	 * so thousands of pending reads don't need thousands of blocked threads.
+	 *
+	 * @param file the file object to read from
+	 * @return a future completing with the file contents, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<byte[]> readBytesAsync(File file)
+	{
+		return AsyncDiskIO.readBytes(file);
+	}
+	
+	/**
+	 * Loads a file into a String from a valid String path without blocking the caller
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a future completing with the file contents, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<String> readStringAsync(String filePath)
+	{
+		return readStringAsync(new File(filePath));
+	}
+	
+	/**
+	 * Loads a file into a String from a File object without blocking the caller
+	 *
+	 * @param file the file object to read from
+	 * @return a future completing with the file contents, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<String> readStringAsync(File file)
+	{
+		return readBytesAsync(file).thenApply(bytes -> new String(bytes, StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Loads many files into byte Arrays at once.
+	 * Reads run concurrently on virtual threads on Java 21+, or a small shared pool otherwise, at most 64 at a time,
+	 * so loading many small files costs roughly the slowest read rather than the sum of them.
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 */
+	public static Map<File, byte[]> readAll(Collection<File> files) throws IOException
+	{
+		return readAll(files, DiskExecutors.blocking());
+	}
+	
+	/**
+	 * Loads many files into byte Arrays at once, running the reads on the specified executor.
+	 * The calling thread reads alongside the executor, so the batch completes even if the executor is saturated.
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @param executor the executor to run the reads on
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 */
+	public static Map<File, byte[]> readAll(Collection<File> files, ExecutorService executor) throws IOException
+	{
+		return BatchReader.readAll(files, executor, DiskReader::readBytes);
+	}
+	
+	/**
+	 * Loads many files into Strings at once, see readAll
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 */
+	public static Map<File, String> readAllStrings(Collection<File> files) throws IOException
+	{
+		return readAllStrings(files, DiskExecutors.blocking());
+	}
+	
+	/**
+	 * Loads many files into Strings at once, running the reads on the specified executor
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @param executor the executor to run the reads on
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 */
+	public static Map<File, String> readAllStrings(Collection<File> files, ExecutorService executor) throws IOException
+	{
+		return BatchReader.readAll(files, executor, DiskReader::readString);
+	}
+	
+	/**
+	 * Creates a read-through cache, for files that are read over and over such as templates and configs.
+	 * Cached files are revalidated against their last modified time and size on every read.
+	 *
+	 * @param maxBytes the most bytes the cache may hold before evicting the least recently used files
+	 * @return a new, empty CachedDiskReader
+	 */
+	public static CachedDiskReader newCache(long maxBytes)
+	{
+		return new CachedDiskReader(maxBytes);
+	}
+	
+	/**
+	 * Opens a tailer following the lines appended to a file, starting from its current end
+	 *
+	 * @param filePath any valid file path to follow, it doesn't have to exist yet
+	 * @return DiskTailer holding the file open until it is closed
+	 */
+	public static DiskTailer openTailer(String filePath)
+	{
+		return openTailer(new File(filePath));
+	}
+	
+	/**
+	 * Opens a tailer following the lines appended to a file, starting from its current end
+	 *
+	 * @param file the file object to follow, it doesn't have to exist yet
+	 * @return DiskTailer holding the file open until it is closed
+	 */
+	public static DiskTailer openTailer(File file)
+	{
+		return openTailer(file, file.length());
+	}
+	
+	/**
+	 * Opens a tailer following the lines of a file, starting from the specified byte offset
+	 *
+	 * @param file the file object to follow, it doesn't have to exist yet
+	 * @param position the byte offset to start from, 0 for the whole file, or a saved DiskTailer.getPosition()
+	 * @return DiskTailer holding the file open until it is closed
+	 */
+	public static DiskTailer openTailer(File file, long position)
+	{
+		return new DiskTailer(file, position, DiskTailer.DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * Streams each line of a file to the consumer from a valid String path.
+	 * The file is decoded incrementally, so memory usage stays bounded regardless of the file size.
+	 *
+	 * @param filePath any valid file path to read from
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 */
+	public static void forEachLine(String filePath, Consumer<String> consumer) throws IOException
+	{
+		forEachLine(new File(filePath), consumer);
+	}
+	
+	/**
+	 * Streams each line of a file to the consumer from a File object.
+	 * The file is decoded incrementally, so memory usage stays bounded regardless of the file size.
+	 *
+	 * @param file the file object to read from
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 */
+	public static void forEachLine(File file, Consumer<String> consumer) throws IOException
+	{
 		BufferedReader reader = null;
 		try
 		{
-			reader = new BufferedReader(new StringReader(fullString));
-			String add;
+			reader = newReader(file);
+			String line;
 			
-			while ((add = reader.readLine()) != null)
+			while ((line = reader.readLine()) != null)
 			{
-				array.add(add);
+				consumer.accept(line);
 			}
 		}
-		catch (IOException e)
+		finally
 		{
+			if (reader != null)
+				try
+				{
+					reader.close();
+				} catch (Exception ex) {}
+		}
+	}
+	
+	/**
+	 * Lazily streams the lines of a file from a valid String path.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a lazily populated String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> lines(String filePath) throws IOException
+	{
+		return lines(new File(filePath));
+	}
+	
+	/**
+	 * Lazily streams the lines of a file from a File object.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param file the file object to read from
+	 * @return a lazily populated String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> lines(File file) throws IOException
+	{
+		BufferedReader reader = newReader(file);
+		return reader.lines().onClose(() ->
+		{
+			try
+			{
+				reader.close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Lazily streams the lines of a file in parallel from a valid String path.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a parallel String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> parallelLines(String filePath) throws IOException
+	{
+		return parallelLines(new File(filePath));
+	}
+	
+	/**
+	 * Lazily streams the lines of a file in parallel from a File object.
+	 * The file is split into byte ranges aligned to line starts, and each worker decodes its own range,
+	 * so filter / map / count jobs over large files scale with the available cores.
+	 * Lines are split on '\n' (a trailing '\r' is dropped), and encounter order is kept.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param file the file object to read from
+	 * @return a parallel String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> parallelLines(File file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try
+		{
+			return StreamSupport.stream(new LineSpliterator(channel, 0, channel.size()), true).onClose(() ->
+			{
+				try
+				{
+					channel.close();
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
 			throw e;
 		}
+	}
+	
+	/**
+	 * Loads the last lines of a file from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @param count the number of lines to read
+	 * @return String ArrayList with up to count of the last lines, in file order
+	 * @throws IOException if an I/O error occurs reading from the file
+	 */
+	public static ArrayList<String> tailLines(String filePath, int count) throws IOException
+	{
+		return tailLines(new File(filePath), count);
+	}
+	
+	/**
+	 * Loads the last lines of a file from a File object.
+	 * The file is read backwards from the end in chunks, so the cost is the bytes of those lines, not the size of the file.
+	 * Lines are split on '\n' (a trailing '\r' is dropped).
+	 *
+	 * @param file the file object to read from
+	 * @param count the number of lines to read
+	 * @return String ArrayList with up to count of the last lines, in file order
+	 * @throws IOException if an I/O error occurs reading from the file
+	 */
+	public static ArrayList<String> tailLines(File file, int count) throws IOException
+	{
+		if (count < 0)
+			throw new IllegalArgumentException("Line count must not be negative");
+		
+		ArrayList<String> lines = new ArrayList<>();
+		FileChannel channel = null;
+		try
+		{
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			ReverseLineSpliterator spliterator = new ReverseLineSpliterator(channel);
+			
+			while (lines.size() < count)
+				if (!spliterator.tryAdvance(lines::add))
+					break;
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
 		finally
 		{
-			if (reader != null)
+			if (channel != null)
 				try
 				{
-					reader.close();
+					channel.close();
 				} catch (Exception ex) {}
 		}
 		
-		return array;
+		Collections.reverse(lines);
+		return lines;
+	}
+	
+	/**
+	 * Lazily streams the lines of a file from the last to the first from a valid String path.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return a lazily populated String Stream with the file content lines, last line first
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> reverseLines(String filePath) throws IOException
+	{
+		return reverseLines(new File(filePath));
+	}
+	
+	/**
+	 * Lazily streams the lines of a file from the last to the first from a File object.
+	 * The file is read backwards from the end in chunks, so only the lines consumed are read.
+	 * Lines are split on '\n' (a trailing '\r' is dropped).
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param file the file object to read from
+	 * @return a lazily populated String Stream with the file content lines, last line first
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> reverseLines(File file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		return StreamSupport.stream(new ReverseLineSpliterator(channel), false).onClose(() ->
+		{
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Memory maps a file as a read-only buffer from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return read-only MappedByteBuffer over the file contents
+	 * @throws IOException if an I/O error occurs, or the file is too large to map as a single buffer
+	 */
+	public static MappedByteBuffer map(String filePath) throws IOException
+	{
+		return map(new File(filePath));
+	}
+	
+	/**
+	 * Memory maps a file as a read-only buffer from a File object.
+	 * Files over 2 GB can't fit a single buffer, use mapChunks for those.
+	 *
+	 * @param file the file object to read from
+	 * @return read-only MappedByteBuffer over the file contents
+	 * @throws IOException if an I/O error occurs, or the file is too large to map as a single buffer
+	 */
+	public static MappedByteBuffer map(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			if (size > MAP_CHUNK_SIZE)
+				throw new IOException("File is too large to map as a single buffer (" + size + " bytes), use mapChunks instead");
+			
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+	}
+	
+	/**
+	 * Memory maps a file of any size as consecutive read-only buffers from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return read-only MappedByteBuffer Array covering the file contents in order
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MappedByteBuffer[] mapChunks(String filePath) throws IOException
+	{
+		return mapChunks(new File(filePath));
+	}
+	
+	/**
+	 * Memory maps a file of any size as consecutive read-only buffers from a File object
+	 *
+	 * @param file the file object to read from
+	 * @return read-only MappedByteBuffer Array covering the file contents in order
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MappedByteBuffer[] mapChunks(File file) throws IOException
+	{
+		return mapChunks(file, MAP_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Memory maps a file of any size as consecutive read-only buffers from a File object
+	 *
+	 * @param file the file object to read from
+	 * @param chunkSize the maximum size of each mapped buffer
+	 * @return read-only MappedByteBuffer Array covering the file contents in order
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MappedByteBuffer[] mapChunks(File file, int chunkSize) throws IOException
+	{
+		if (chunkSize <= 0)
+			throw new IllegalArgumentException("Chunk size must be positive");
+		
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			int count = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+			MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+			
+			for (int i = 0; i < count; i++)
+			{
+				long position = (long) i * chunkSize;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, size - position));
+			}
+			
+			return chunks;
+		}
+	}
+	
+	/**
+	 * Searches a memory mapped file for the first occurrence of a byte sequence from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @param pattern the bytes to search for
+	 * @return the file offset of the first match, or -1 if there is none
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static long indexOf(String filePath, byte[] pattern) throws IOException
+	{
+		return indexOf(new File(filePath), pattern);
+	}
+	
+	/**
+	 * Searches a memory mapped file for the first occurrence of a byte sequence from a File object.
+	 * The file is scanned in place, none of it is copied onto the heap.
+	 *
+	 * @param file the file object to read from
+	 * @param pattern the bytes to search for
+	 * @return the file offset of the first match, or -1 if there is none
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static long indexOf(File file, byte[] pattern) throws IOException
+	{
+		return indexOf(file, pattern, MAP_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Searches a memory mapped file for the first occurrence of a byte sequence
+	 *
+	 * @param file the file object to read from
+	 * @param pattern the bytes to search for
+	 * @param chunkSize the maximum size of each mapped window
+	 * @return the file offset of the first match, or -1 if there is none
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static long indexOf(File file, byte[] pattern, int chunkSize) throws IOException
+	{
+		if (pattern.length == 0)
+			return 0;
+		
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			
+			//windows overlap by the pattern length, so matches spanning two windows are still found
+			int step = Math.max(1, chunkSize - pattern.length + 1);
+			for (long position = 0; position + pattern.length <= size; position += step)
+			{
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkSize, size - position));
+				int last = window.limit() - pattern.length;
+				byte first = pattern[0];
+				
+				search:
+				for (int i = 0; i <= last; i++)
+				{
+					if (window.get(i) != first)
+						continue;
+					
+					for (int j = 1; j < pattern.length; j++)
+						if (window.get(i + j) != pattern[j])
+							continue search;
+					
+					return position + i;
+				}
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Streams each line of a memory mapped file to the consumer from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void forEachMappedLine(String filePath, Consumer<String> consumer) throws IOException
+	{
+		forEachMappedLine(new File(filePath), consumer);
+	}
+	
+	/**
+	 * Streams each line of a memory mapped file to the consumer from a File object.
+	 * Lines are split on '\n' (a trailing '\r' is dropped) directly over the mapped region by LineScanner,
+	 * only the bytes of the current line are copied onto the heap. Use LineScanner to avoid decoding Strings at all.
+	 *
+	 * @param file the file object to read from
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void forEachMappedLine(File file, Consumer<String> consumer) throws IOException
+	{
+		forEachMappedLine(file, consumer, MAP_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Streams each line of a memory mapped file to the consumer
+	 *
+	 * @param file the file object to read from
+	 * @param consumer called once for each line of the file
+	 * @param chunkSize the maximum size of each mapped buffer
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void forEachMappedLine(File file, Consumer<String> consumer, int chunkSize) throws IOException
+	{
+		LineScanner.forEachLine(file, (buffer, offset, length) -> consumer.accept(LineScanner.decode(buffer, offset, length)), chunkSize);
+	}
+	
+	/**
+	 * Opens a UTF-8 reader with a fixed size buffer on the specified file
+	 *
+	 * @param file the file object to read from
+	 * @return a buffered UTF-8 reader
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	private static BufferedReader newReader(File file) throws IOException
+	{
+		return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
 	}
 	
 	/**
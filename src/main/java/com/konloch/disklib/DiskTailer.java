@@ -0,0 +1,331 @@
+package com.konloch.disklib;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows a file other processes append to, like tail -f.
+ * The tailer remembers its byte offset and each poll reads only the bytes appended since the last one,
+ * so a poll costs as much as the new data rather than the whole file.
+ * A line is only handed out once its '\n' has been written, a trailing '\r' is dropped.
+ *
+ * If the file is truncated it is read again from the start, and if it is rotated (replaced by a new file at the same path),
+ * the rest of the old file is read before following the new one. Rotation is detected by the file key,
+ * on file systems without file keys only truncation is detected.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class DiskTailer implements Closeable
+{
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	
+	private final Path path;
+	private ByteBuffer buffer;
+	private FileChannel channel;
+	private Object fileKey;
+	private long readPosition;
+	private WatchService watcher;
+	private boolean closed;
+	
+	/**
+	 * Creates a tailer on the file, it is opened on the first poll, or once it exists
+	 *
+	 * @param file the file object to follow
+	 * @param position the byte offset to start reading lines from, usually the start of a line
+	 * @param bufferSize the initial size of the read buffer, it grows to fit lines longer than it
+	 */
+	DiskTailer(File file, long position, int bufferSize)
+	{
+		if (position < 0)
+			throw new IllegalArgumentException("Position must not be negative");
+		
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException("Buffer size must be positive");
+		
+		this.path = file.getAbsoluteFile().toPath();
+		this.buffer = ByteBuffer.allocate(bufferSize);
+		this.readPosition = position;
+	}
+	
+	/**
+	 * Hands every line appended since the last poll to the consumer, without blocking
+	 *
+	 * @param consumer called once for each new line
+	 * @return the number of lines handed to the consumer
+	 * @throws IOException if an I/O error occurs, or the tailer has been closed
+	 */
+	public synchronized int poll(Consumer<String> consumer) throws IOException
+	{
+		ensureOpen();
+		
+		//a missing file is not an error, it may not have been created yet or be mid rotation
+		BasicFileAttributes attributes;
+		try
+		{
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		}
+		catch (NoSuchFileException e)
+		{
+			attributes = null;
+		}
+		
+		int lines = 0;
+		if (channel != null && attributes != null && fileKey != null && !fileKey.equals(attributes.fileKey()))
+		{
+			//rotated, the old file won't grow anymore, so finish it including its unterminated last line
+			lines += read(consumer);
+			lines += flushPartialLine(consumer);
+			closeChannel();
+			readPosition = 0;
+		}
+		
+		if (channel == null)
+		{
+			if (attributes == null)
+				return lines;
+			
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			fileKey = attributes.fileKey();
+		}
+		
+		if (channel.size() < readPosition)
+		{
+			//truncated, anything buffered belonged to the old contents
+			((Buffer) buffer).clear();
+			readPosition = 0;
+		}
+		
+		return lines + read(consumer);
+	}
+	
+	/**
+	 * Hands every line appended since the last poll to the consumer,
+	 * waiting for the file to change if there aren't any yet
+	 *
+	 * @param consumer called once for each new line
+	 * @param timeout the longest time to wait for new lines
+	 * @param unit the unit of the timeout
+	 * @return the number of lines handed to the consumer, 0 if the timeout passed without any
+	 * @throws IOException if an I/O error occurs, or the tailer has been closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public int poll(Consumer<String> consumer, long timeout, TimeUnit unit) throws IOException, InterruptedException
+	{
+		//start watching before polling, so a write between the two still wakes the wait
+		watcher();
+		
+		int lines = poll(consumer);
+		if (lines == 0 && awaitChange(timeout, unit))
+			lines = poll(consumer);
+		
+		return lines;
+	}
+	
+	/**
+	 * Waits for the file to be modified or created using a WatchService on its directory, instead of sleeping between polls.
+	 * Some platforms only poll for changes every few seconds, so the timeout should be what the caller can wait at most.
+	 *
+	 * @param timeout the longest time to wait
+	 * @param unit the unit of the timeout
+	 * @return true if the file changed, false if the timeout passed or the tailer was closed
+	 * @throws IOException if an I/O error occurs starting the watch, or the tailer has been closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean awaitChange(long timeout, TimeUnit unit) throws IOException, InterruptedException
+	{
+		WatchService watcher = watcher();
+		Path name = path.getFileName();
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		
+		try
+		{
+			//events for other files in the directory don't count, keep waiting out the rest of the timeout
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0)
+			{
+				WatchKey key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+				if (key == null)
+					return false;
+				
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents())
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context()))
+						changed = true;
+				
+				key.reset();
+				
+				if (changed)
+					return true;
+			}
+			
+			return false;
+		}
+		catch (ClosedWatchServiceException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * @return the byte offset of the next line to be handed out, save it to resume tailing from the same place later
+	 */
+	public synchronized long getPosition()
+	{
+		return readPosition - buffer.position();
+	}
+	
+	/**
+	 * Closes the file and stops any wait for changes
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (closed)
+			return;
+		
+		closed = true;
+		
+		try
+		{
+			closeChannel();
+		}
+		finally
+		{
+			if (watcher != null)
+				watcher.close();
+		}
+	}
+	
+	/**
+	 * Reads from the remembered offset to the current end of the file with positioned reads,
+	 * handing out every complete line and keeping the unterminated tail for the next poll
+	 *
+	 * @param consumer called once for each complete line
+	 * @return the number of lines handed to the consumer
+	 * @throws IOException if an I/O error occurs
+	 */
+	private int read(Consumer<String> consumer) throws IOException
+	{
+		int[] lines = new int[1];
+		int read;
+		
+		while ((read = channel.read(buffer, readPosition)) > 0)
+		{
+			readPosition += read;
+			
+			//cast to Buffer so the call links against Java 8, where flip isn't overridden by ByteBuffer
+			((Buffer) buffer).flip();
+			int tail = LineScanner.scan(buffer, (bytes, offset, length) ->
+			{
+				consumer.accept(LineScanner.decode(bytes, offset, length));
+				lines[0]++;
+			});
+			
+			((Buffer) buffer).position(tail);
+			buffer.compact();
+			
+			//a line longer than the buffer, grow it so the rest of the line fits
+			if (!buffer.hasRemaining())
+				buffer = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.capacity() * 2), buffer.position(), buffer.capacity());
+		}
+		
+		return lines[0];
+	}
+	
+	/**
+	 * Hands out the buffered unterminated tail as a line, once it's known no more of it will be written
+	 *
+	 * @param consumer called with the tail, if there is one
+	 * @return the number of lines handed to the consumer
+	 */
+	private int flushPartialLine(Consumer<String> consumer)
+	{
+		if (buffer.position() == 0)
+			return 0;
+		
+		int length = buffer.position();
+		if (buffer.get(length - 1) == '\r')
+			length--;
+		
+		consumer.accept(LineScanner.decode(buffer, 0, length));
+		((Buffer) buffer).clear();
+		return 1;
+	}
+	
+	/**
+	 * @return the watch service on the file's directory, started on first use
+	 * @throws IOException if an I/O error occurs, or the tailer has been closed
+	 */
+	private synchronized WatchService watcher() throws IOException
+	{
+		ensureOpen();
+		
+		if (watcher == null)
+		{
+			WatchService service = path.getFileSystem().newWatchService();
+			try
+			{
+				path.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				service.close();
+				throw e;
+			}
+			
+			watcher = service;
+		}
+		
+		return watcher;
+	}
+	
+	/**
+	 * Closes the followed file, if it is open
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void closeChannel() throws IOException
+	{
+		if (channel == null)
+			return;
+		
+		try
+		{
+			channel.close();
+		}
+		finally
+		{
+			channel = null;
+			fileKey = null;
+		}
+	}
+	
+	/**
+	 * @throws IOException if the tailer has been closed
+	 */
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+			throw new IOException("Tailer closed");
+	}
+}
@@ -1,12 +1,33 @@
 package com.konloch.disklib;
 
+import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 
 /**
  * Small disk writing util
@@ -17,6 +38,7 @@ import java.util.Set;
 public class DiskWriter
 {
 	private static final String EMPTY = "";
+	private static final int BUFFER_SIZE = 8192;
 	
 	/**
 	 * Appends nothing to a specified file.
@@ -145,14 +167,7 @@ public class DiskWriter
 	 */
 	public static void append(File file, Collection<String> linesToWrite) throws IOException
 	{
-		StringBuilder sb = new StringBuilder();
-		for (String s : linesToWrite)
-			if(sb.length() != 0)
-				sb.append(System.lineSeparator()).append(s);
-			else
-				sb.append(s);
-
-		write(file, sb.toString().getBytes(StandardCharsets.UTF_8), true);
+		write(file, linesToWrite, true);
 	}
 	
 	/**
@@ -181,6 +196,88 @@ public class DiskWriter
 		write(file, fileContents, true);
 	}
 	
+	/**
+	 * Opens a long-lived buffered appender on the specified file.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file path to open
+	 * @return DiskAppender holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static DiskAppender openAppender(String file) throws IOException
+	{
+		return openAppender(new File(file));
+	}
+	
+	/**
+	 * Opens a long-lived buffered appender on the specified file.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file object
+	 * @return DiskAppender holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static DiskAppender openAppender(File file) throws IOException
+	{
+		return openAppender(file, DiskAppender.DEFAULT_BUFFER_SIZE, DiskAppender.DEFAULT_FLUSH_INTERVAL);
+	}
+	
+	/**
+	 * Opens a long-lived buffered appender on the specified file.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file object
+	 * @param bufferSize the size of the direct write buffer
+	 * @param flushIntervalMillis the longest time buffered appends wait before being written, or 0 to only flush when full
+	 * @return DiskAppender holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static DiskAppender openAppender(File file, int bufferSize, long flushIntervalMillis) throws IOException
+	{
+		return new DiskAppender(file, bufferSize, flushIntervalMillis);
+	}
+	
+	/**
+	 * Opens an asynchronous group-commit appender on the specified file, which never fsyncs.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file path to open
+	 * @return AsyncDiskWriter holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static AsyncDiskWriter openAsync(String file) throws IOException
+	{
+		return openAsync(new File(file));
+	}
+	
+	/**
+	 * Opens an asynchronous group-commit appender on the specified file, which never fsyncs.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file object
+	 * @return AsyncDiskWriter holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static AsyncDiskWriter openAsync(File file) throws IOException
+	{
+		return openAsync(file, AsyncDiskWriter.FsyncPolicy.NEVER, AsyncDiskWriter.DEFAULT_FSYNC_INTERVAL);
+	}
+	
+	/**
+	 * Opens an asynchronous group-commit appender on the specified file.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file any valid file object
+	 * @param fsyncPolicy when written batches are forced to the storage device
+	 * @param fsyncIntervalMillis the interval used by FsyncPolicy.INTERVAL
+	 * @return AsyncDiskWriter holding the file open until it is closed
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static AsyncDiskWriter openAsync(File file, AsyncDiskWriter.FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException
+	{
+		return new AsyncDiskWriter(file, fsyncPolicy, fsyncIntervalMillis, AsyncDiskWriter.DEFAULT_CAPACITY, AsyncDiskWriter.DEFAULT_BATCH_SIZE);
+	}
+	
 	/**
 	 * Writes nothing to a specified file.
 	 * If the file doesn't exist it will automatically create it.
@@ -308,14 +405,7 @@ public class DiskWriter
 	 */
 	public static void write(File file, Collection<String> linesToWrite) throws IOException
 	{
-		StringBuilder sb = new StringBuilder();
-		for (String s : linesToWrite)
-			if(sb.length() != 0)
-				sb.append(System.lineSeparator()).append(s);
-			else
-				sb.append(s);
-
-		write(file, sb.toString().getBytes(StandardCharsets.UTF_8), false);
+		write(file, linesToWrite, false);
 	}
 	
 	/**
@@ -344,6 +434,443 @@ public class DiskWriter
 		write(file, fileContents, false);
 	}
 	
+	/**
+	 * Copies a file without pulling its contents through the Java heap.
+	 * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param source any valid file path to copy from
+	 * @param target any valid file path to copy to
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void copy(String source, String target) throws IOException
+	{
+		copy(new File(source), new File(target));
+	}
+	
+	/**
+	 * Copies a file with FileChannel.transferTo, so the kernel can use sendfile / copy_file_range
+	 * instead of pulling the contents through the Java heap.
+	 * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param source the file object to copy from
+	 * @param target the file object to copy to
+	 * @throws IOException if an I/O error occurs, or a source is truncated while it is copied
+	 */
+	public static void copy(File source, File target) throws IOException
+	{
+		concat(target, source);
+	}
+	
+	/**
+	 * Concatenates files into a target file without pulling their contents through the Java heap.
+	 * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param target any valid file path to write to
+	 * @param sources any valid file paths to read from, in order
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void concat(String target, String... sources) throws IOException
+	{
+		File[] files = new File[sources.length];
+		for (int i = 0; i < sources.length; i++)
+			files[i] = new File(sources[i]);
+		
+		concat(new File(target), files);
+	}
+	
+	/**
+	 * Concatenates files into a target file with FileChannel.transferTo, so the kernel can use
+	 * sendfile / copy_file_range instead of pulling the contents through the Java heap.
+	 * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param target the file object to write to
+	 * @param sources the file objects to read from, in order
+	 * @throws IOException if an I/O error occurs, or a source is truncated while it is copied
+	 */
+	public static void concat(File target, File... sources) throws IOException
+	{
+		//the target is truncated before the sources are read, so it can't be one of them
+		for (File source : sources)
+			if (target.exists() && source.exists() && Files.isSameFile(target.toPath(), source.toPath()))
+				throw new IllegalArgumentException("The target can't also be a source: " + source);
+		
+		try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			for (File source : sources)
+				transfer(source, out);
+		}
+	}
+	
+	/**
+	 * Transfers a file to any writable channel, such as a socket, without pulling its contents through the Java heap.
+	 * The channel must be in blocking mode, and is left open.
+	 *
+	 * @param file any valid file path to read from
+	 * @param target the channel to write to, in blocking mode
+	 * @throws IOException if an I/O error occurs, or the file is truncated during the transfer
+	 */
+	public static void transfer(String file, WritableByteChannel target) throws IOException
+	{
+		transfer(new File(file), target);
+	}
+	
+	/**
+	 * Transfers a file to any writable channel, such as a socket, with FileChannel.transferTo,
+	 * so the kernel can use sendfile / copy_file_range instead of pulling the contents through the Java heap.
+	 * The channel must be in blocking mode, a non-blocking channel can accept nothing and would never finish. It is left open.
+	 *
+	 * @param file the file object to read from
+	 * @param target the channel to write to, in blocking mode
+	 * @throws IOException if an I/O error occurs, or the file is truncated during the transfer
+	 */
+	public static void transfer(File file, WritableByteChannel target) throws IOException
+	{
+		if (target instanceof SelectableChannel && !((SelectableChannel) target).isBlocking())
+			throw new IllegalArgumentException("The target channel must be in blocking mode");
+		
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = in.size();
+			long position = 0;
+			
+			//transferTo may move fewer bytes than asked for, keep going until the whole file is sent
+			while (position < size)
+			{
+				long transferred = in.transferTo(position, size - position, target);
+				if (transferred > 0)
+				{
+					position += transferred;
+					continue;
+				}
+				
+				//a blocking target always takes something, so nothing moving means the file shrank under the transfer
+				if (in.size() <= position)
+					throw new EOFException("File was truncated during the transfer: " + file);
+				
+				throw new IOException("The target channel accepted no bytes: " + target);
+			}
+		}
+	}
+	
+	/**
+	 * Writes a String to the specified file without blocking the caller.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param line String to write
+	 * @return a future completing once the file is written and closed, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<Void> writeAsync(String file, String line)
+	{
+		return writeAsync(new File(file), line);
+	}
+	
+	/**
+	 * Writes a String to the specified file without blocking the caller.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param line String to write
+	 * @return a future completing once the file is written and closed, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<Void> writeAsync(File file, String line)
+	{
+		return writeAsync(file, line.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Writes a byte Array to the specified file without blocking the caller.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @return a future completing once the file is written and closed, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<Void> writeAsync(String file, byte[] fileContents)
+	{
+		return writeAsync(new File(file), fileContents);
+	}
+	
+	/**
+	 * Writes a byte Array to the specified file without blocking the caller.
+	 * The file is written over an AsynchronousFileChannel on a small shared pool, through pooled direct buffers.
+	 * The byte Array must not be modified until the future completes.
+	 *
+	 * @param file any valid file object
+	 * @param fileContents byte Array of any size
+	 * @return a future completing once the file is written and closed, or exceptionally with the IOException
+	 */
+	public static CompletableFuture<Void> writeAsync(File file, byte[] fileContents)
+	{
+		return AsyncDiskIO.write(file, fileContents);
+	}
+	
+	/**
+	 * Writes a String to the specified file along with a CRC-32C sidecar, for reading back with DiskReader.readBytesVerified.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param line String to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(String file, String line) throws IOException
+	{
+		writeVerified(new File(file), line.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Writes a String to the specified file along with a CRC-32C sidecar, for reading back with DiskReader.readBytesVerified.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param line String to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(File file, String line) throws IOException
+	{
+		writeVerified(file, line.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Writes a byte Array to the specified file along with a CRC-32C sidecar, for reading back with DiskReader.readBytesVerified.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(String file, byte[] fileContents) throws IOException
+	{
+		writeVerified(new File(file), fileContents);
+	}
+	
+	/**
+	 * Writes a byte Array to the specified file along with a CRC-32C sidecar (file.crc32c),
+	 * for reading back with DiskReader.readBytesVerified. The checksum is hardware accelerated on Java 9+.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(File file, byte[] fileContents) throws IOException
+	{
+		write(file, fileContents, false);
+		Crc32c.writeSidecar(file, Crc32c.checksum(fileContents, 0, fileContents.length));
+	}
+	
+	/**
+	 * Writes a String Collection to the specified file along with a CRC-32C sidecar, for reading back with DiskReader.readBytesVerified.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file path to open
+	 * @param linesToWrite String Collection lines to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(String file, Collection<String> linesToWrite) throws IOException
+	{
+		writeVerified(new File(file), linesToWrite);
+	}
+	
+	/**
+	 * Writes a String Collection to the specified file along with a CRC-32C sidecar, for reading back with DiskReader.readBytesVerified.
+	 * The checksum is taken as the lines are encoded and written, the file is never read back.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file any valid file object
+	 * @param linesToWrite String Collection lines to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeVerified(File file, Collection<String> linesToWrite) throws IOException
+	{
+		Checksum checksum = Crc32c.newChecksum();
+		write(file, linesToWrite, false, checksum);
+		Crc32c.writeSidecar(file, checksum.getValue());
+	}
+	
+	/**
+	 * Atomically writes a String to the specified file, forcing it to the storage device.
+	 * Readers see either the old or the new contents, never a partial write.
+	 *
+	 * @param file any valid file path to open
+	 * @param line String to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(String file, String line) throws IOException
+	{
+		writeAtomic(new File(file), line.getBytes(StandardCharsets.UTF_8), true);
+	}
+	
+	/**
+	 * Atomically writes a String to the specified file, forcing it to the storage device.
+	 * Readers see either the old or the new contents, never a partial write.
+	 *
+	 * @param file any valid file object
+	 * @param line String to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(File file, String line) throws IOException
+	{
+		writeAtomic(file, line.getBytes(StandardCharsets.UTF_8), true);
+	}
+	
+	/**
+	 * Atomically writes a byte Array to the specified file, forcing it to the storage device.
+	 * Readers see either the old or the new contents, never a partial write.
+	 *
+	 * @param file any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(String file, byte[] fileContents) throws IOException
+	{
+		writeAtomic(new File(file), fileContents, true);
+	}
+	
+	/**
+	 * Atomically writes a byte Array to the specified file, forcing it to the storage device.
+	 * Readers see either the old or the new contents, never a partial write.
+	 *
+	 * @param file any valid file object
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(File file, byte[] fileContents) throws IOException
+	{
+		writeAtomic(file, fileContents, true);
+	}
+	
+	/**
+	 * Atomically writes a byte Array to the specified file.
+	 * The contents go to a sibling temp file which is renamed over the target, so readers see either the old
+	 * or the new contents. With fsync the temp file and the directory are forced too, so the write also survives a crash.
+	 *
+	 * @param file any valid file object
+	 * @param fileContents byte Array of any size
+	 * @param fsync true to force the contents and the rename to the storage device
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(File file, byte[] fileContents, boolean fsync) throws IOException
+	{
+		Map<File, byte[]> files = new LinkedHashMap<>();
+		files.put(file, fileContents);
+		writeAtomic(files, fsync);
+	}
+	
+	/**
+	 * Atomically writes a batch of files.
+	 * Every temp file is written before any is renamed, and each directory is forced only once for the whole batch.
+	 * Each file is replaced atomically on its own, the batch as a whole is not.
+	 *
+	 * @param files the files to write, mapped to their contents
+	 * @param fsync true to force the contents and the renames to the storage device
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeAtomic(Map<File, byte[]> files, boolean fsync) throws IOException
+	{
+		List<Path> targets = new ArrayList<>(files.size());
+		List<Path> temps = new ArrayList<>(files.size());
+		
+		try
+		{
+			for (Map.Entry<File, byte[]> entry : files.entrySet())
+			{
+				Path target = entry.getKey().toPath().toAbsolutePath();
+				targets.add(target);
+				temps.add(writeTemp(target, entry.getValue(), fsync));
+			}
+			
+			Set<Path> directories = new LinkedHashSet<>();
+			for (int i = 0; i < targets.size(); i++)
+			{
+				Files.move(temps.get(i), targets.get(i), StandardCopyOption.ATOMIC_MOVE);
+				temps.set(i, null);
+				directories.add(targets.get(i).getParent());
+			}
+			
+			if (fsync)
+				for (Path directory : directories)
+					syncDirectory(directory);
+		}
+		finally
+		{
+			//clean up anything left behind by a failure
+			for (Path temp : temps)
+				if (temp != null)
+					try
+					{
+						Files.deleteIfExists(temp);
+					} catch (Exception ex) {}
+		}
+	}
+	
+	/**
+	 * Writes contents to a new temp file next to the target, keeping the target's permissions if it exists
+	 *
+	 * @param target the file the temp file will replace
+	 * @param fileContents byte Array of any size
+	 * @param fsync true to force the temp file to the storage device
+	 * @return the path of the temp file
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path writeTemp(Path target, byte[] fileContents, boolean fsync) throws IOException
+	{
+		Path temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+		
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW))
+		{
+			ByteBuffer buffer = ByteBuffer.wrap(fileContents);
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			
+			if (fsync)
+				channel.force(true);
+			
+			if (Files.exists(target))
+				try
+				{
+					Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+				} catch (UnsupportedOperationException ex) {}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		
+		return temp;
+	}
+	
+	/**
+	 * Forces a directory to the storage device, so renames inside it survive a crash.
+	 * Some platforms can't open directories, there the rename is left to the file system.
+	 *
+	 * @param directory the directory to force
+	 * @throws IOException if an I/O error occurs forcing the directory
+	 */
+	private static void syncDirectory(Path directory) throws IOException
+	{
+		FileChannel channel;
+		try
+		{
+			channel = FileChannel.open(directory, StandardOpenOption.READ);
+		}
+		catch (IOException e)
+		{
+			return;
+		}
+		
+		try
+		{
+			channel.force(true);
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+	
 	/**
 	 * Writes or appends a byte Array to the specified file.
 	 * If the file doesn't exist it will automatically create it.
@@ -370,4 +897,75 @@ public class DiskWriter
 				} catch (Exception ex) {}
 		}
 	}
+	
+	/**
+	 * Writes or appends a String Collection to the specified file.
+	 * Each line is encoded straight into a fixed size buffer, the lines are never joined in memory.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file the file object to open
+	 * @param linesToWrite String Collection lines to write
+	 * @param append true to append files, false to overwrite files
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void write(File file, Collection<String> linesToWrite, boolean append) throws IOException
+	{
+		write(file, linesToWrite, append, null);
+	}
+	
+	/**
+	 * Writes or appends a String Collection to the specified file, checksumming the encoded bytes as they are written.
+	 * If the file doesn't exist it will automatically create it.
+	 *
+	 * @param file the file object to open
+	 * @param linesToWrite String Collection lines to write
+	 * @param append true to append files, false to overwrite files
+	 * @param checksum updated with every byte written, or null
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void write(File file, Collection<String> linesToWrite, boolean append, Checksum checksum) throws IOException
+	{
+		Writer writer = null;
+		try
+		{
+			OutputStream out = new FileOutputStream(file, append);
+			if (checksum != null)
+				out = new CheckedOutputStream(out, checksum);
+			
+			writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+			writeLines(writer, linesToWrite);
+			writer.flush();
+		}
+		finally
+		{
+			if (writer != null)
+				try
+				{
+					writer.close();
+				} catch (Exception ex) {}
+		}
+	}
+	
+	/**
+	 * Writes a String Collection with a line separator between each non-leading line
+	 *
+	 * @param writer the writer to write to
+	 * @param linesToWrite String Collection lines to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void writeLines(Writer writer, Collection<String> linesToWrite) throws IOException
+	{
+		//matches joining the lines, a separator is only written once there is content before it
+		boolean empty = true;
+		for (String s : linesToWrite)
+		{
+			if (!empty)
+				writer.write(System.lineSeparator());
+			
+			writer.write(s);
+			
+			if (!s.isEmpty())
+				empty = false;
+		}
+	}
 }
\ No newline at end of file
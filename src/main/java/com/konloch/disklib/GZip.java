@@ -1,20 +1,48 @@
 package com.konloch.disklib;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 /**
- * Small gzip compression and decompression util
+ * Small gzip compression and decompression util.
+ * Compression writes ZLib by default, or real gzip with CompressionOptions.gzip(),
+ * decompression detects the format of every member on its own.
+ * Deflaters and Inflaters are pooled, so repeated calls don't allocate new native zlib state.
  *
  * @author Konloch
  * @since Oct 18, 2014
  */
 public class GZip
 {
-	private static final int BUFFER_SIZE = 1024;
+	private static final int BUFFER_SIZE = CompressionOptions.DEFAULT_BUFFER_SIZE;
+	private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	private static final int WINDOW_SIZE = 32 * 1024;
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final BlockingQueue<Deflater> RAW_DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final BlockingQueue<Inflater> RAW_INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	
+	//gzip header flags, RFC 1952 section 2.3.1
+	static final int FHCRC = 0x02;
+	static final int FEXTRA = 0x04;
+	static final int FNAME = 0x08;
+	static final int FCOMMENT = 0x10;
+	static final int FRESERVED = 0xE0;
 	
 	/**
 	 * Compress a byte[] using GZip Compression (ZLib)
@@ -24,81 +52,1007 @@ public class GZip
 	 */
 	public static byte[] compress(byte[] data)
 	{
-		//build the compressor
-		Deflater deflater = new Deflater();
-		deflater.setInput(data);
+		return compress(data, new CompressionOptions());
+	}
+	
+	/**
+	 * Compress a byte[] using GZip Compression with the specified format, level, strategy and buffer size
+	 *
+	 * @param data byte Array of any size
+	 * @param options the compression settings to use
+	 * @return compressed byte Array in the format of the options, ZLib unless set to gzip
+	 */
+	public static byte[] compress(byte[] data, CompressionOptions options)
+	{
+		return compress(data, 0, data.length, options);
+	}
+	
+	/**
+	 * Compress a range of a byte[] using GZip Compression with the specified format, level, strategy and buffer size,
+	 * the range is compressed in place without copying it out of the array
+	 *
+	 * @param data byte Array of any size
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @param options the compression settings to use
+	 * @return compressed byte Array in the format of the options, ZLib unless set to gzip
+	 */
+	public static byte[] compress(byte[] data, int offset, int length, CompressionOptions options)
+	{
+		//every parallel block is primed with the block before it, which leaves no room for a preset dictionary
+		if (options.getBlockSize() > 0 && length > options.getBlockSize() && options.getDictionary() == null)
+			return compressParallel(data, offset, length, options);
+		
+		//compressed data is usually a fraction of the input, so start at a quarter of it and only grow toward the bound
+		int bound = compressBound(length);
+		ArrayOutput output = new ArrayOutput(Math.min(bound, Math.max(BUFFER_SIZE, length / 4)), bound);
+		deflate(ByteBuffer.wrap(data, offset, length), output, options);
+		return output.toByteArray();
+	}
+	
+	/**
+	 * Compress the remaining bytes of a ByteBuffer into another ByteBuffer using GZip Compression (ZLib).
+	 * Heap buffers are compressed in place without any copies, direct buffers pass through a small scratch array.
+	 *
+	 * @param src the data to compress, from its position to its limit, its position is advanced to its limit
+	 * @param dst receives the compressed data at its position, which is advanced past it
+	 * @return the number of compressed bytes written
+	 * @throws BufferOverflowException if dst doesn't have room, neither buffer's position is changed
+	 */
+	public static int compress(ByteBuffer src, ByteBuffer dst)
+	{
+		return compress(src, dst, new CompressionOptions());
+	}
+	
+	/**
+	 * Compress the remaining bytes of a ByteBuffer into another ByteBuffer with the specified format, level, strategy and buffer size.
+	 * The block size is ignored, the output is always a single stream.
+	 * Heap buffers are compressed in place without any copies, direct buffers pass through a scratch array of the buffer size.
+	 *
+	 * @param src the data to compress, from its position to its limit, its position is advanced to its limit
+	 * @param dst receives the compressed data at its position, which is advanced past it, compressBound gives the room it can need
+	 * @param options the compression settings to use
+	 * @return the number of compressed bytes written
+	 * @throws BufferOverflowException if dst doesn't have room, neither buffer's position is changed
+	 */
+	public static int compress(ByteBuffer src, ByteBuffer dst, CompressionOptions options)
+	{
+		int srcPosition = src.position();
+		int dstPosition = dst.position();
+		
+		try
+		{
+			deflate(src, new BufferOutput(dst, options.getBufferSize()), options);
+		}
+		catch (BufferOverflowException e)
+		{
+			((Buffer) src).position(srcPosition);
+			((Buffer) dst).position(dstPosition);
+			throw e;
+		}
 		
-		//create the output buffer
-		ByteArrayOutputStream outputStream = null;
+		return dst.position() - dstPosition;
+	}
+	
+	/**
+	 * The largest the compressed form of the specified number of bytes can be, in either format and with any settings,
+	 * for sizing the destination of compress(ByteBuffer, ByteBuffer)
+	 *
+	 * @param length the number of bytes to compress
+	 * @return the most bytes compressing them can produce
+	 */
+	public static int compressBound(int length)
+	{
+		//zlib's deflateBound for any level and strategy, plus the larger gzip wrapper
+		long bound = (long) length + ((length + 7) >> 3) + ((length + 63) >> 6) + 5 + 18;
+		return (int) Math.min(MAX_ARRAY_SIZE, bound);
+	}
+	
+	/**
+	 * Compresses the remaining bytes of a ByteBuffer as a single ZLib or gzip stream
+	 *
+	 * @param src the data to compress, its position is advanced to its limit
+	 * @param output receives the compressed stream
+	 * @param options the compression settings to use
+	 */
+	private static void deflate(ByteBuffer src, Output output, CompressionOptions options)
+	{
+		//build the compressor, gzip wraps raw deflate data in its own header and trailer
+		boolean gzip = options.getFormat() == CompressionOptions.Format.GZIP;
+		Deflater deflater = acquireDeflater(options, gzip);
 		
-		//compress each byte chunk and write it to the byte array stream
 		try
 		{
-			outputStream = new ByteArrayOutputStream(data.length);
-			deflater.finish();
+			presetDictionary(deflater, options);
 			
-			byte[] buffer = new byte[BUFFER_SIZE];
+			CRC32 crc = null;
+			if (gzip)
+			{
+				crc = new CRC32();
+				crc.update(src.duplicate());
+				output.put(gzipHeader(options.getLevel()));
+			}
+			
+			//compress straight into the output, direct input is handed over a chunk at a time
+			Input input = new Input(src, options.getBufferSize());
+			input.feed(deflater);
 			while (!deflater.finished())
 			{
-				outputStream.write(buffer, 0, deflater.deflate(buffer));
+				if (output.deflate(deflater) == 0 && deflater.needsInput())
+					input.feed(deflater);
 			}
+			
+			if (gzip)
+				output.put(gzipTrailer(crc.getValue(), deflater.getBytesRead()));
+			
+			((Buffer) src).position(src.limit());
 		}
 		finally
 		{
-			try
+			releaseDeflater(deflater, gzip);
+		}
+	}
+	
+	/**
+	 * Compress a byte[] as independent blocks on the ForkJoinPool, pigz-style.
+	 * Each block is primed with the tail of the previous block as a preset dictionary and ends on a sync flush,
+	 * so the blocks join into a single valid ZLib or gzip stream that decompresses like any other.
+	 *
+	 * @param data byte Array of any size
+	 * @param offset the start of the range to compress
+	 * @param length the number of bytes in the range
+	 * @param options the compression settings to use, including the block size
+	 * @return compressed byte Array in the format of the options
+	 */
+	private static byte[] compressParallel(byte[] data, int offset, int length, CompressionOptions options)
+	{
+		int blockSize = options.getBlockSize();
+		int blockCount = (int) ((length + (long) blockSize - 1) / blockSize);
+		
+		//compress every block in parallel
+		List<ForkJoinTask<byte[]>> blocks = new ArrayList<>(blockCount);
+		for (int i = 0; i < blockCount; i++)
+		{
+			int blockOffset = offset + i * blockSize;
+			int blockLength = Math.min(blockSize, offset + length - blockOffset);
+			boolean last = i == blockCount - 1;
+			blocks.add(options.getPool().submit(() -> compressBlock(data, offset, blockOffset, blockLength, last, options)));
+		}
+		
+		//the checksum covers the whole input, so compute it while the blocks compress
+		boolean gzip = options.getFormat() == CompressionOptions.Format.GZIP;
+		long checksum = checksum(gzip ? new CRC32() : new Adler32(), data, offset, length);
+		
+		//every block is done before the output is built, so it's allocated at its exact size
+		byte[] header = gzip ? gzipHeader(options.getLevel()) : new byte[]{0x78, (byte) headerFlags(options.getLevel())};
+		byte[] trailer = gzip ? gzipTrailer(checksum, length)
+				: new byte[]{(byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum};
+		
+		byte[][] compressed = new byte[blockCount][];
+		int outputLength = header.length + trailer.length;
+		for (int i = 0; i < blockCount; i++)
+		{
+			compressed[i] = blocks.get(i).join();
+			outputLength += compressed[i].length;
+		}
+		
+		ArrayOutput output = new ArrayOutput(outputLength, outputLength);
+		output.put(header);
+		for (byte[] block : compressed)
+			output.put(block);
+		
+		output.put(trailer);
+		return output.toByteArray();
+	}
+	
+	/**
+	 * Compress a single block of a parallel compression into raw deflate data
+	 *
+	 * @param data the full input byte Array
+	 * @param start the start of the range being compressed, the dictionary never reaches before it
+	 * @param offset the start of the block
+	 * @param length the length of the block
+	 * @param last true to finish the stream, false to end on a sync flush
+	 * @param options the compression settings to use
+	 * @return raw deflate byte Array of the block
+	 */
+	private static byte[] compressBlock(byte[] data, int start, int offset, int length, boolean last, CompressionOptions options)
+	{
+		Deflater deflater = acquireDeflater(options, true);
+		try
+		{
+			int dictionaryLength = Math.min(WINDOW_SIZE, offset - start);
+			if (dictionaryLength > 0)
+				deflater.setDictionary(data, offset - dictionaryLength, dictionaryLength);
+			
+			deflater.setInput(data, offset, length);
+			
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream(length / 2);
+			byte[] buffer = new byte[options.getBufferSize()];
+			
+			if (last)
 			{
-				if(outputStream != null)
-					outputStream.close();
+				deflater.finish();
+				while (!deflater.finished())
+				{
+					outputStream.write(buffer, 0, deflater.deflate(buffer));
+				}
 			}
-			catch (IOException e)
+			else
 			{
-				e.printStackTrace();
+				//the flush is complete once all input is consumed and the deflater stops filling the whole buffer
+				int written;
+				do
+				{
+					written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					outputStream.write(buffer, 0, written);
+				}
+				while (written == buffer.length || !deflater.needsInput());
 			}
+			
+			return outputStream.toByteArray();
+		}
+		finally
+		{
+			releaseDeflater(deflater, true);
 		}
-		
-		return outputStream.toByteArray();
 	}
 	
 	/**
-	 * Decompress a byte[] using GZip Compression (ZLib)
+	 * Builds the ZLib header FLG byte for the specified compression level, without a preset dictionary
 	 *
-	 * @param data compressed GZIP (ZLib) byte Array of any size
-	 * @return decompressed byte Array with GZip Compression (ZLib)
+	 * @param level the compression level
+	 * @return the FLG byte to follow the CMF byte 0x78
+	 */
+	private static int headerFlags(int level)
+	{
+		if (level == Deflater.DEFAULT_COMPRESSION)
+			return 0x9C;
+		else if (level < 2)
+			return 0x01;
+		else if (level < 6)
+			return 0x5E;
+		else if (level == 6)
+			return 0x9C;
+		else
+			return 0xDA;
+	}
+	
+	/**
+	 * Decompress a byte[] using GZip Compression.
+	 * Every concatenated member is decompressed, so appended files are read back in full,
+	 * and each member may be either ZLib or gzip, detected by its header.
+	 * The output is allocated once when the data is a single gzip member, which records its size in its trailer.
+	 *
+	 * @param data compressed ZLib or gzip byte Array of any size
+	 * @return decompressed byte Array
 	 * @throws DataFormatException if the compressed data format is invalid
 	 */
 	public static byte[] decompress(byte[] data) throws DataFormatException
 	{
-		//create the decompressor
-		Inflater inflater = new Inflater();
-		inflater.setInput(data);
+		return decompress(data, 0, data.length);
+	}
+	
+	/**
+	 * Decompress a range of a byte[] using GZip Compression,
+	 * the range is decompressed in place without copying it out of the array
+	 *
+	 * @param data byte Array of any size
+	 * @param offset the start of the compressed ZLib or gzip range
+	 * @param length the number of bytes in the range
+	 * @return decompressed byte Array
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] decompress(byte[] data, int offset, int length) throws DataFormatException
+	{
+		ArrayOutput output = new ArrayOutput(sizeHint(data, offset, length), MAX_ARRAY_SIZE);
+		inflate(ByteBuffer.wrap(data, offset, length), output);
+		return output.toByteArray();
+	}
+	
+	/**
+	 * Decompress the remaining bytes of a ByteBuffer into another ByteBuffer.
+	 * Every concatenated member is decompressed, and each member may be either ZLib or gzip, detected by its header.
+	 * Heap buffers are decompressed in place without any copies, direct buffers pass through a small scratch array.
+	 *
+	 * @param src compressed ZLib or gzip data, from its position to its limit, its position is advanced to its limit
+	 * @param dst receives the decompressed data at its position, which is advanced past it
+	 * @return the number of decompressed bytes written
+	 * @throws DataFormatException if the compressed data format is invalid, neither buffer's position is changed
+	 * @throws BufferOverflowException if dst doesn't have room, neither buffer's position is changed
+	 */
+	public static int decompress(ByteBuffer src, ByteBuffer dst) throws DataFormatException
+	{
+		int srcPosition = src.position();
+		int dstPosition = dst.position();
+		
+		try
+		{
+			inflate(src, new BufferOutput(dst, BUFFER_SIZE));
+		}
+		catch (BufferOverflowException | DataFormatException e)
+		{
+			((Buffer) src).position(srcPosition);
+			((Buffer) dst).position(dstPosition);
+			throw e;
+		}
+		
+		return dst.position() - dstPosition;
+	}
+	
+	/**
+	 * Estimates the decompressed size of the data, so the output is usually allocated once.
+	 * A gzip member ends with its uncompressed size, which is exact when the data is a single member,
+	 * ZLib doesn't record its size, so it's estimated from a typical ratio and grown if needed.
+	 *
+	 * @param data byte Array holding the compressed ZLib or gzip range
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @return the initial size of the output
+	 */
+	private static int sizeHint(byte[] data, int offset, int length)
+	{
+		if (length >= 18 && isGZip(ByteBuffer.wrap(data), offset))
+		{
+			//deflate can't expand data more than 1032:1, anything above that isn't the size of a single member
+			long size = readInt(data, offset + length - 4);
+			if (size > 0 && size <= length * 1032L && size <= MAX_ARRAY_SIZE)
+				return (int) size;
+		}
 		
-		//create the output buffer
-		ByteArrayOutputStream outputStream = null;
+		return (int) Math.min(MAX_ARRAY_SIZE, Math.max(BUFFER_SIZE, length * 4L));
+	}
+	
+	/**
+	 * Decompresses every member in the remaining bytes of a ByteBuffer
+	 *
+	 * @param src compressed ZLib or gzip data, its position is advanced to its limit
+	 * @param output receives the decompressed bytes
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	private static void inflate(ByteBuffer src, Output output) throws DataFormatException
+	{
+		//create the decompressors, gzip members are raw deflate data inside their own header and trailer
+		Inflater inflater = null;
+		Inflater rawInflater = null;
 		
-		//decompress each byte chunk and write it to the byte array stream
+		//decompress each member straight into the output
 		try
 		{
-			outputStream = new ByteArrayOutputStream(data.length);
-			
-			byte[] buffer = new byte[BUFFER_SIZE];
-			while (!inflater.finished())
+			Input input = new Input(src, BUFFER_SIZE);
+			int offset = src.position();
+			while (offset < src.limit())
 			{
-				outputStream.write(buffer, 0, inflater.inflate(buffer));
+				if (isGZip(src, offset))
+				{
+					if (rawInflater == null)
+						rawInflater = acquireInflater(true);
+					
+					CRC32 crc = new CRC32();
+					int end = inflateMember(rawInflater, input, skipGZipHeader(src, offset), output, crc);
+					offset = checkGZipTrailer(src, end, crc.getValue(), rawInflater.getBytesWritten());
+				}
+				else
+				{
+					if (inflater == null)
+						inflater = acquireInflater();
+					
+					offset = inflateMember(inflater, input, offset, output, null);
+				}
 			}
+			
+			((Buffer) src).position(src.limit());
 		}
 		finally
 		{
-			try
+			if (inflater != null)
+				releaseInflater(inflater);
+			
+			if (rawInflater != null)
+				releaseInflater(rawInflater, true);
+		}
+	}
+	
+	/**
+	 * Decompresses one member, starting at the offset and stopping at the end of its deflate stream
+	 *
+	 * @param inflater the Inflater for the member's format, it is reset before use
+	 * @param input the compressed data
+	 * @param offset the start of the member's stream
+	 * @param output receives the decompressed bytes
+	 * @param checksum updated with the decompressed bytes, or null
+	 * @return the offset just after the member's stream
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	private static int inflateMember(Inflater inflater, Input input, int offset, Output output, Checksum checksum) throws DataFormatException
+	{
+		inflater.reset();
+		input.seek(offset);
+		input.feed(inflater);
+		
+		while (!inflater.finished())
+		{
+			int read = output.inflate(inflater, checksum);
+			
+			if (read == 0 && !inflater.finished())
 			{
-				if(outputStream != null)
-					outputStream.close();
+				if (inflater.needsDictionary())
+					inflater.setDictionary(dictionary(inflater.getAdler()));
+				else if (inflater.needsInput() && !input.feed(inflater))
+					throw new DataFormatException("Unexpected end of compressed data");
 			}
-			catch (IOException e)
+		}
+		
+		return input.position() - inflater.getRemaining();
+	}
+	
+	/**
+	 * @param data compressed data
+	 * @param offset the start of a member
+	 * @return true if the member starts with the gzip magic bytes, a ZLib header can never start with them
+	 */
+	static boolean isGZip(ByteBuffer data, int offset)
+	{
+		return data.limit() - offset >= 2 && (data.get(offset) & 0xFF) == 0x1F && (data.get(offset + 1) & 0xFF) == 0x8B;
+	}
+	
+	/**
+	 * Validates and skips a gzip member header, including the optional extra field, file name, comment and header CRC
+	 *
+	 * @param data compressed data
+	 * @param offset the start of the member
+	 * @return the offset of the member's deflate stream
+	 * @throws DataFormatException if the header is invalid or truncated
+	 */
+	private static int skipGZipHeader(ByteBuffer data, int offset) throws DataFormatException
+	{
+		if (data.limit() - offset < 10)
+			throw new DataFormatException("Unexpected end of gzip header");
+		
+		int flags = data.get(offset + 3) & 0xFF;
+		if (data.get(offset + 2) != Deflater.DEFLATED || (flags & FRESERVED) != 0)
+			throw new DataFormatException("Unsupported gzip header");
+		
+		int position = offset + 10;
+		if ((flags & FEXTRA) != 0)
+		{
+			if (data.limit() - position < 2)
+				throw new DataFormatException("Unexpected end of gzip header");
+			
+			position += 2 + ((data.get(position) & 0xFF) | (data.get(position + 1) & 0xFF) << 8);
+		}
+		
+		if ((flags & FNAME) != 0)
+			position = skipZeroTerminated(data, position);
+		
+		if ((flags & FCOMMENT) != 0)
+			position = skipZeroTerminated(data, position);
+		
+		if ((flags & FHCRC) != 0)
+			position += 2;
+		
+		if (position > data.limit())
+			throw new DataFormatException("Unexpected end of gzip header");
+		
+		return position;
+	}
+	
+	/**
+	 * @param data compressed data
+	 * @param position the start of a zero terminated header field
+	 * @return the offset just after the terminating zero
+	 * @throws DataFormatException if the field is never terminated
+	 */
+	private static int skipZeroTerminated(ByteBuffer data, int position) throws DataFormatException
+	{
+		while (position < data.limit() && data.get(position) != 0)
+			position++;
+		
+		if (position >= data.limit())
+			throw new DataFormatException("Unexpected end of gzip header");
+		
+		return position + 1;
+	}
+	
+	/**
+	 * Validates a gzip member trailer against what was decompressed
+	 *
+	 * @param data compressed data
+	 * @param offset the start of the trailer
+	 * @param crc the CRC-32 of the decompressed member
+	 * @param size the number of decompressed bytes in the member
+	 * @return the offset just after the trailer
+	 * @throws DataFormatException if the trailer is truncated or doesn't match
+	 */
+	private static int checkGZipTrailer(ByteBuffer data, int offset, long crc, long size) throws DataFormatException
+	{
+		if (data.limit() - offset < 8)
+			throw new DataFormatException("Unexpected end of compressed data");
+		
+		if (readInt(data, offset) != crc)
+			throw new DataFormatException("Corrupt gzip member, CRC-32 mismatch");
+		
+		if (readInt(data, offset + 4) != (size & 0xFFFFFFFFL))
+			throw new DataFormatException("Corrupt gzip member, size mismatch");
+		
+		return offset + 8;
+	}
+	
+	/**
+	 * Builds a gzip member header, without a file name or timestamp so identical input gives identical output
+	 *
+	 * @param level the compression level, recorded in the XFL byte
+	 * @return the ten byte header
+	 */
+	static byte[] gzipHeader(int level)
+	{
+		int extraFlags = level == Deflater.BEST_COMPRESSION ? 2 : level == Deflater.BEST_SPEED ? 4 : 0;
+		return new byte[]{0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, (byte) extraFlags, (byte) 0xFF};
+	}
+	
+	/**
+	 * Builds a gzip member trailer
+	 *
+	 * @param crc the CRC-32 of the uncompressed data
+	 * @param size the number of uncompressed bytes
+	 * @return the eight byte little endian trailer
+	 */
+	static byte[] gzipTrailer(long crc, long size)
+	{
+		return new byte[]{(byte) crc, (byte) (crc >>> 8), (byte) (crc >>> 16), (byte) (crc >>> 24),
+				(byte) size, (byte) (size >>> 8), (byte) (size >>> 16), (byte) (size >>> 24)};
+	}
+	
+	/**
+	 * @param data byte Array
+	 * @param offset the start of a little endian 32 bit value
+	 * @return the unsigned value
+	 */
+	static long readInt(byte[] data, int offset)
+	{
+		return (data[offset] & 0xFFL) | (data[offset + 1] & 0xFFL) << 8
+				| (data[offset + 2] & 0xFFL) << 16 | (data[offset + 3] & 0xFFL) << 24;
+	}
+	
+	/**
+	 * @param data compressed data
+	 * @param offset the start of a little endian 32 bit value
+	 * @return the unsigned value
+	 */
+	private static long readInt(ByteBuffer data, int offset)
+	{
+		return (data.get(offset) & 0xFFL) | (data.get(offset + 1) & 0xFFL) << 8
+				| (data.get(offset + 2) & 0xFFL) << 16 | (data.get(offset + 3) & 0xFFL) << 24;
+	}
+	
+	/**
+	 * @param checksum a new Checksum
+	 * @param data byte Array of any size
+	 * @param offset the start of the range
+	 * @param length the number of bytes in the range
+	 * @return the checksum of the range
+	 */
+	private static long checksum(Checksum checksum, byte[] data, int offset, int length)
+	{
+		checksum.update(data, offset, length);
+		return checksum.getValue();
+	}
+	
+	/**
+	 * Primes a freshly acquired compressor with the options' preset dictionary, if they have one
+	 *
+	 * @param deflater the Deflater, before any input is given to it
+	 * @param options the compression settings in use
+	 */
+	static void presetDictionary(Deflater deflater, CompressionOptions options)
+	{
+		if (options.getDictionary() != null)
+			deflater.setDictionary(options.getDictionary().bytes());
+	}
+	
+	/**
+	 * Looks up the registered dictionary a ZLib stream was compressed with
+	 *
+	 * @param id the dictionary id from the stream's header
+	 * @return the dictionary contents
+	 * @throws DataFormatException if no dictionary with that id is registered
+	 */
+	static byte[] dictionary(int id) throws DataFormatException
+	{
+		GZipDictionary dictionary = GZipDictionary.get(id);
+		if (dictionary == null)
+			throw new DataFormatException(String.format("Compressed data requires preset dictionary %08x, register it with GZipDictionary.register", id));
+		
+		return dictionary.bytes();
+	}
+	
+	/**
+	 * Takes a compressor from the pool, or builds a new one if the pool is empty
+	 *
+	 * @param options the compression level and strategy to apply
+	 * @return a reset Deflater ready for new input
+	 */
+	static Deflater acquireDeflater(CompressionOptions options)
+	{
+		return acquireDeflater(options, false);
+	}
+	
+	/**
+	 * Takes a compressor from the pool, or builds a new one if the pool is empty
+	 *
+	 * @param options the compression level and strategy to apply
+	 * @param nowrap true for raw deflate output without the ZLib header and checksum
+	 * @return a reset Deflater ready for new input
+	 */
+	static Deflater acquireDeflater(CompressionOptions options, boolean nowrap)
+	{
+		Deflater deflater = (nowrap ? RAW_DEFLATERS : DEFLATERS).poll();
+		if (deflater == null)
+			deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+		
+		deflater.setLevel(options.getLevel());
+		deflater.setStrategy(options.getStrategy());
+		return deflater;
+	}
+	
+	/**
+	 * Resets and returns a compressor to the pool.
+	 * If the pool is already full the native zlib memory is released right away with end().
+	 *
+	 * @param deflater the Deflater to return, it must not be used afterwards
+	 */
+	static void releaseDeflater(Deflater deflater)
+	{
+		releaseDeflater(deflater, false);
+	}
+	
+	/**
+	 * Resets and returns a compressor to the pool.
+	 * If the pool is already full the native zlib memory is released right away with end().
+	 *
+	 * @param deflater the Deflater to return, it must not be used afterwards
+	 * @param nowrap true if the Deflater was acquired for raw deflate output
+	 */
+	static void releaseDeflater(Deflater deflater, boolean nowrap)
+	{
+		deflater.reset();
+		
+		if (!(nowrap ? RAW_DEFLATERS : DEFLATERS).offer(deflater))
+			deflater.end();
+	}
+	
+	/**
+	 * Takes a decompressor from the pool, or builds a new one if the pool is empty
+	 *
+	 * @return a reset Inflater ready for new input
+	 */
+	static Inflater acquireInflater()
+	{
+		return acquireInflater(false);
+	}
+	
+	/**
+	 * Takes a decompressor from the pool, or builds a new one if the pool is empty
+	 *
+	 * @param nowrap true for raw deflate input without the ZLib header and checksum
+	 * @return a reset Inflater ready for new input
+	 */
+	static Inflater acquireInflater(boolean nowrap)
+	{
+		Inflater inflater = (nowrap ? RAW_INFLATERS : INFLATERS).poll();
+		return inflater != null ? inflater : new Inflater(nowrap);
+	}
+	
+	/**
+	 * Resets and returns a decompressor to the pool.
+	 * If the pool is already full the native zlib memory is released right away with end().
+	 *
+	 * @param inflater the Inflater to return, it must not be used afterwards
+	 */
+	static void releaseInflater(Inflater inflater)
+	{
+		releaseInflater(inflater, false);
+	}
+	
+	/**
+	 * Resets and returns a decompressor to the pool.
+	 * If the pool is already full the native zlib memory is released right away with end().
+	 *
+	 * @param inflater the Inflater to return, it must not be used afterwards
+	 * @param nowrap true if the Inflater was acquired for raw deflate input
+	 */
+	static void releaseInflater(Inflater inflater, boolean nowrap)
+	{
+		inflater.reset();
+		
+		if (!(nowrap ? RAW_INFLATERS : INFLATERS).offer(inflater))
+			inflater.end();
+	}
+	
+	/**
+	 * Where compressed or decompressed bytes go, either an array grown as needed or a caller's ByteBuffer
+	 */
+	private interface Output
+	{
+		/**
+		 * @param bytes a whole header or trailer to write
+		 */
+		void put(byte[] bytes);
+		
+		/**
+		 * @param deflater the compressor to take output from
+		 * @return the number of bytes written, 0 if the compressor has nothing to give until it has more input
+		 */
+		int deflate(Deflater deflater);
+		
+		/**
+		 * @param inflater the decompressor to take output from
+		 * @param checksum updated with the bytes written, or null
+		 * @return the number of bytes written, 0 if the decompressor needs more input, a dictionary, or is finished
+		 * @throws DataFormatException if the compressed data format is invalid
+		 */
+		int inflate(Inflater inflater, Checksum checksum) throws DataFormatException;
+	}
+	
+	/**
+	 * A byte Array output that starts at an estimated size and is only trimmed if the estimate wasn't exact
+	 */
+	private static class ArrayOutput implements Output
+	{
+		private final int growthLimit;
+		private final byte[] probe = new byte[1];
+		private byte[] bytes;
+		private int size;
+		
+		/**
+		 * @param capacity the estimated size of the output
+		 * @param growthLimit the largest the array is doubled to when the estimate is too small
+		 */
+		private ArrayOutput(int capacity, int growthLimit)
+		{
+			this.bytes = new byte[capacity];
+			this.growthLimit = growthLimit;
+		}
+		
+		@Override
+		public void put(byte[] data)
+		{
+			ensureCapacity(data.length);
+			System.arraycopy(data, 0, bytes, size, data.length);
+			size += data.length;
+		}
+		
+		@Override
+		public int deflate(Deflater deflater)
+		{
+			//a full array may already hold all of the output, so only grow once there's proof of more
+			if (size == bytes.length)
+			{
+				if (deflater.deflate(probe) == 0)
+					return 0;
+				
+				put(probe);
+				return 1;
+			}
+			
+			int written = deflater.deflate(bytes, size, bytes.length - size);
+			size += written;
+			return written;
+		}
+		
+		@Override
+		public int inflate(Inflater inflater, Checksum checksum) throws DataFormatException
+		{
+			int start = size;
+			if (size == bytes.length)
+			{
+				if (inflater.inflate(probe) == 0)
+					return 0;
+				
+				put(probe);
+			}
+			else
 			{
-				e.printStackTrace();
+				size += inflater.inflate(bytes, size, bytes.length - size);
 			}
+			
+			if (checksum != null)
+				checksum.update(bytes, start, size - start);
+			
+			return size - start;
+		}
+		
+		/**
+		 * @param length the number of bytes about to be written
+		 */
+		private void ensureCapacity(int length)
+		{
+			if (bytes.length - size >= length)
+				return;
+			
+			long capacity = Math.max((long) size + length, Math.min(bytes.length * 2L, growthLimit));
+			if (capacity > MAX_ARRAY_SIZE)
+				throw new OutOfMemoryError("Output is too large for a byte Array");
+			
+			bytes = Arrays.copyOf(bytes, (int) capacity);
 		}
 		
-		return outputStream.toByteArray();
+		/**
+		 * @return the output, the array itself if the estimate was exact, otherwise a copy trimmed to size
+		 */
+		private byte[] toByteArray()
+		{
+			return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+		}
+	}
+	
+	/**
+	 * A caller's ByteBuffer output, heap buffers are written through their backing array,
+	 * direct buffers through a scratch array, as Deflater and Inflater only accept arrays on Java 8
+	 */
+	private static class BufferOutput implements Output
+	{
+		private final ByteBuffer buffer;
+		private final byte[] scratch;
+		private final byte[] probe = new byte[1];
+		
+		/**
+		 * @param buffer the buffer to write to, from its position
+		 * @param scratchSize the size of the scratch array used if the buffer has no backing array
+		 */
+		private BufferOutput(ByteBuffer buffer, int scratchSize)
+		{
+			this.buffer = buffer;
+			this.scratch = buffer.hasArray() ? null : new byte[Math.max(1, Math.min(scratchSize, buffer.remaining()))];
+		}
+		
+		@Override
+		public void put(byte[] bytes)
+		{
+			buffer.put(bytes);
+		}
+		
+		@Override
+		public int deflate(Deflater deflater)
+		{
+			if (!buffer.hasRemaining())
+			{
+				if (deflater.deflate(probe) > 0)
+					throw new BufferOverflowException();
+				
+				return 0;
+			}
+			
+			if (scratch == null)
+			{
+				int written = deflater.deflate(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+				((Buffer) buffer).position(buffer.position() + written);
+				return written;
+			}
+			
+			int written = deflater.deflate(scratch, 0, Math.min(scratch.length, buffer.remaining()));
+			buffer.put(scratch, 0, written);
+			return written;
+		}
+		
+		@Override
+		public int inflate(Inflater inflater, Checksum checksum) throws DataFormatException
+		{
+			if (!buffer.hasRemaining())
+			{
+				if (inflater.inflate(probe) > 0)
+					throw new BufferOverflowException();
+				
+				return 0;
+			}
+			
+			byte[] array = scratch != null ? scratch : buffer.array();
+			int offset = scratch != null ? 0 : buffer.arrayOffset() + buffer.position();
+			int length = scratch != null ? Math.min(scratch.length, buffer.remaining()) : buffer.remaining();
+			
+			int read = inflater.inflate(array, offset, length);
+			if (checksum != null)
+				checksum.update(array, offset, read);
+			
+			if (scratch != null)
+				buffer.put(scratch, 0, read);
+			else
+				((Buffer) buffer).position(buffer.position() + read);
+			
+			return read;
+		}
+	}
+	
+	/**
+	 * Hands the remaining bytes of a ByteBuffer to a Deflater or Inflater,
+	 * all at once through the backing array of a heap buffer, or a scratch array at a time for a direct buffer
+	 */
+	private static class Input
+	{
+		private final ByteBuffer buffer;
+		private final byte[] scratch;
+		private int position;
+		
+		/**
+		 * @param buffer the input, from its position to its limit
+		 * @param scratchSize the size of the scratch array used if the buffer has no backing array
+		 */
+		private Input(ByteBuffer buffer, int scratchSize)
+		{
+			this.buffer = buffer;
+			this.scratch = buffer.hasArray() ? null : new byte[scratchSize];
+			this.position = buffer.position();
+		}
+		
+		/**
+		 * @return the end of the input handed over so far
+		 */
+		private int position()
+		{
+			return position;
+		}
+		
+		/**
+		 * @param position where the next input handed over starts
+		 */
+		private void seek(int position)
+		{
+			this.position = position;
+		}
+		
+		/**
+		 * Hands over the next input, finishing the compressor once it has all of it
+		 *
+		 * @param deflater the compressor to give input to
+		 */
+		private void feed(Deflater deflater)
+		{
+			int length = next();
+			if (scratch == null)
+				deflater.setInput(buffer.array(), buffer.arrayOffset() + position, length);
+			else
+				deflater.setInput(scratch, 0, length);
+			
+			position += length;
+			if (position == buffer.limit())
+				deflater.finish();
+		}
+		
+		/**
+		 * Hands over the next input
+		 *
+		 * @param inflater the decompressor to give input to
+		 * @return false if there is no input left
+		 */
+		private boolean feed(Inflater inflater)
+		{
+			int length = next();
+			if (length == 0)
+				return false;
+			
+			if (scratch == null)
+				inflater.setInput(buffer.array(), buffer.arrayOffset() + position, length);
+			else
+				inflater.setInput(scratch, 0, length);
+			
+			position += length;
+			return true;
+		}
+		
+		/**
+		 * @return the length of the next input, copied into the scratch array for a direct buffer
+		 */
+		private int next()
+		{
+			int length = buffer.limit() - position;
+			if (scratch == null)
+				return length;
+			
+			length = Math.min(length, scratch.length);
+			ByteBuffer source = buffer.duplicate();
+			((Buffer) source).position(position);
+			source.get(scratch, 0, length);
+			return length;
+		}
 	}
 }
\ No newline at end of file
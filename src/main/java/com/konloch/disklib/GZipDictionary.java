@@ -0,0 +1,322 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Adler32;
+
+/**
+ * A preset dictionary for compressing many small, similar files, such as JSON records or configs.
+ * Deflate normally starts every file with an empty window, so small files can't reference anything;
+ * with a dictionary the common keys and boilerplate are already in the window, and most of each file becomes short matches.
+ *
+ * Files compressed with CompressionOptions.setDictionary carry the dictionary's id in their ZLib header,
+ * reading them looks the dictionary up by that id, so it has to be registered before reading.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class GZipDictionary
+{
+	public static final int MAX_SIZE = 32 * 1024;
+	public static final int DEFAULT_SIZE = 16 * 1024;
+	
+	//training looks for shared 8 byte runs, and builds the dictionary out of the segments covering the most of them
+	private static final int KMER_LENGTH = 8;
+	private static final int SEGMENT_LENGTH = 48;
+	private static final int SEGMENT_STEP = 16;
+	private static final int MAX_TRAINING_BYTES = 8 * 1024 * 1024;
+	private static final int HASH_LOG = 21;
+	private static final Map<Integer, GZipDictionary> REGISTRY = new ConcurrentHashMap<>();
+	
+	private final byte[] bytes;
+	private final int id;
+	
+	/**
+	 * Creates a dictionary from its raw contents, the most useful content should be at the end
+	 *
+	 * @param bytes the dictionary contents, 1 byte to 32 KB
+	 */
+	public GZipDictionary(byte[] bytes)
+	{
+		if (bytes.length == 0 || bytes.length > MAX_SIZE)
+			throw new IllegalArgumentException("Dictionary size must be between 1 and " + MAX_SIZE + " bytes");
+		
+		this.bytes = bytes.clone();
+		
+		//the same Adler-32 ZLib stores in the header of every stream compressed with the dictionary
+		Adler32 adler = new Adler32();
+		adler.update(this.bytes, 0, this.bytes.length);
+		this.id = (int) adler.getValue();
+	}
+	
+	/**
+	 * @return the id stored in the header of files compressed with this dictionary
+	 */
+	public int getId()
+	{
+		return id;
+	}
+	
+	/**
+	 * @return a copy of the dictionary contents
+	 */
+	public byte[] getBytes()
+	{
+		return bytes.clone();
+	}
+	
+	/**
+	 * @return the dictionary contents, not copied, they must not be modified
+	 */
+	byte[] bytes()
+	{
+		return bytes;
+	}
+	
+	/**
+	 * Saves the dictionary to a valid String path, so the same dictionary can be loaded wherever the files are read
+	 *
+	 * @param filePath any valid file path to open
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void save(String filePath) throws IOException
+	{
+		save(new File(filePath));
+	}
+	
+	/**
+	 * Saves the dictionary to a File object, so the same dictionary can be loaded wherever the files are read
+	 *
+	 * @param file any valid file object
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void save(File file) throws IOException
+	{
+		DiskWriter.writeAtomic(file, bytes);
+	}
+	
+	/**
+	 * Loads a saved dictionary from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return the loaded dictionary, it still has to be registered to read files with it
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static GZipDictionary load(String filePath) throws IOException
+	{
+		return load(new File(filePath));
+	}
+	
+	/**
+	 * Loads a saved dictionary from a File object
+	 *
+	 * @param file the file object to read from
+	 * @return the loaded dictionary, it still has to be registered to read files with it
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static GZipDictionary load(File file) throws IOException
+	{
+		return new GZipDictionary(DiskReader.readBytes(file));
+	}
+	
+	/**
+	 * Makes a dictionary available to every decompression, files naming its id in their header are read with it
+	 *
+	 * @param dictionary the dictionary to register
+	 */
+	public static void register(GZipDictionary dictionary)
+	{
+		REGISTRY.put(dictionary.id, dictionary);
+	}
+	
+	/**
+	 * Looks up a registered dictionary
+	 *
+	 * @param id the id from a compressed stream's header
+	 * @return the dictionary, or null if none is registered with that id
+	 */
+	public static GZipDictionary get(int id)
+	{
+		return REGISTRY.get(id);
+	}
+	
+	/**
+	 * Trains a dictionary from sample files, up to 8 MB of them are used
+	 *
+	 * @param files sample files, representative of the files that will be compressed
+	 * @param size the maximum size of the dictionary, at most 32 KB
+	 * @return the trained dictionary
+	 * @throws IOException if an I/O error occurs reading the samples
+	 */
+	public static GZipDictionary trainFromFiles(Collection<File> files, int size) throws IOException
+	{
+		return train(DiskReader.readAll(files).values(), size);
+	}
+	
+	/**
+	 * Trains a dictionary from samples, up to 8 MB of them are used.
+	 * Runs of bytes shared by many samples are found, then the segments covering the most of them are packed into the dictionary,
+	 * the most valuable last so they sit closest to the data and cost the least to reference.
+	 *
+	 * @param samples sample contents, representative of the files that will be compressed
+	 * @param size the maximum size of the dictionary, at most 32 KB
+	 * @return the trained dictionary
+	 * @throws IllegalArgumentException if the samples don't share any content
+	 */
+	public static GZipDictionary train(Collection<byte[]> samples, int size)
+	{
+		if (size <= 0 || size > MAX_SIZE)
+			throw new IllegalArgumentException("Dictionary size must be between 1 and " + MAX_SIZE + " bytes");
+		
+		List<byte[]> used = new ArrayList<>();
+		long total = 0;
+		for (byte[] sample : samples)
+		{
+			if (total + sample.length > MAX_TRAINING_BYTES)
+				break;
+			
+			used.add(sample);
+			total += sample.length;
+		}
+		
+		//count how many samples contain each run, a run only in one sample is no use to any other file.
+		//runs are hashed into a fixed table, a rare collision only nudges a count, which is fine for picking segments
+		int[] frequencies = new int[1 << HASH_LOG];
+		int[] lastSample = new int[1 << HASH_LOG];
+		for (int sample = 0; sample < used.size(); sample++)
+		{
+			byte[] data = used.get(sample);
+			for (int i = 0; i + KMER_LENGTH <= data.length; i++)
+			{
+				int hash = hash(data, i);
+				if (lastSample[hash] != sample + 1)
+				{
+					lastSample[hash] = sample + 1;
+					frequencies[hash]++;
+				}
+			}
+		}
+		
+		PriorityQueue<Segment> candidates = new PriorityQueue<>();
+		for (byte[] sample : used)
+		{
+			for (int start = 0; start + KMER_LENGTH <= sample.length; start += SEGMENT_STEP)
+			{
+				Segment segment = new Segment(sample, start, Math.min(SEGMENT_LENGTH, sample.length - start));
+				segment.score = segment.score(frequencies);
+				if (segment.score > 0)
+					candidates.add(segment);
+			}
+		}
+		
+		//lazy greedy selection, a segment's score only drops as runs get covered, so rescoring the best one is enough
+		List<Segment> chosen = new ArrayList<>();
+		int length = 0;
+		while (length < size && !candidates.isEmpty())
+		{
+			Segment best = candidates.poll();
+			long score = best.score(frequencies);
+			
+			if (score <= 0)
+				continue;
+			
+			if (!candidates.isEmpty() && score < candidates.peek().score)
+			{
+				best.score = score;
+				candidates.add(best);
+				continue;
+			}
+			
+			best.length = Math.min(best.length, size - length);
+			best.cover(frequencies);
+			chosen.add(best);
+			length += best.length;
+		}
+		
+		if (chosen.isEmpty())
+			throw new IllegalArgumentException("The samples don't share any content to build a dictionary from");
+		
+		//the best segments go last, closest to the data being compressed
+		byte[] dictionary = new byte[length];
+		int position = length;
+		for (Segment segment : chosen)
+		{
+			position -= segment.length;
+			System.arraycopy(segment.sample, segment.start, dictionary, position, segment.length);
+		}
+		
+		return new GZipDictionary(dictionary);
+	}
+	
+	/**
+	 * @param data byte Array
+	 * @param position the start of the 8 byte run
+	 * @return the frequency table slot for the run
+	 */
+	private static int hash(byte[] data, int position)
+	{
+		long value = 0;
+		for (int i = 0; i < KMER_LENGTH; i++)
+			value = value << 8 | (data[position + i] & 0xFF);
+		
+		return (int) ((value * 0x9E3779B97F4A7C15L) >>> (64 - HASH_LOG));
+	}
+	
+	/**
+	 * A candidate range of a sample, ordered by score from highest to lowest
+	 */
+	private static class Segment implements Comparable<Segment>
+	{
+		private final byte[] sample;
+		private final int start;
+		private int length;
+		private long score;
+		
+		private Segment(byte[] sample, int start, int length)
+		{
+			this.sample = sample;
+			this.start = start;
+			this.length = length;
+		}
+		
+		/**
+		 * @param frequencies the number of samples containing each run, 0 once a run is covered
+		 * @return the sum of the frequencies of the shared runs in the segment
+		 */
+		private long score(int[] frequencies)
+		{
+			long score = 0;
+			for (int i = start; i + KMER_LENGTH <= start + length; i++)
+			{
+				int frequency = frequencies[hash(sample, i)];
+				if (frequency > 1)
+					score += frequency;
+			}
+			
+			return score;
+		}
+		
+		/**
+		 * Marks every run in the segment as covered, so other segments containing them lose their value
+		 *
+		 * @param frequencies the number of samples containing each run
+		 */
+		private void cover(int[] frequencies)
+		{
+			for (int i = start; i + KMER_LENGTH <= start + length; i++)
+				frequencies[hash(sample, i)] = 0;
+		}
+		
+		@Override
+		public int compareTo(Segment o)
+		{
+			return Long.compare(o.score, score);
+		}
+	}
+}
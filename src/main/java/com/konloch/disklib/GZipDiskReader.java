@@ -2,11 +2,20 @@ package com.konloch.disklib;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.zip.DataFormatException;
 
 /**
@@ -17,6 +26,8 @@ import java.util.zip.DataFormatException;
  */
 public class GZipDiskReader
 {
+	private static final int BUFFER_SIZE = 8192;
+	
 	/**
 	 * Decompresses and loads a gzip file into a String Array from a valid String path
 	 *
@@ -69,6 +80,39 @@ public class GZipDiskReader
 		return GZip.decompress(Files.readAllBytes(file.toPath()));
 	}
 	
+	/**
+	 * Decompresses and loads a file into a byte Array from a valid String path,
+	 * verifying it against the CRC-32C sidecar written by GZipDiskWriter.writeVerified
+	 *
+	 * @param filePath any valid file path to open
+	 * @return byte Array with the decompressed file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the compressed contents don't match the stored checksum
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytesVerified(String filePath) throws IOException, DataFormatException
+	{
+		return readBytesVerified(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a byte Array from a File object,
+	 * verifying it against the CRC-32C sidecar written by GZipDiskWriter.writeVerified.
+	 * The checksum covers the compressed bytes as read, so corruption is reported before decompressing.
+	 *
+	 * @param file the file object to open
+	 * @return byte Array with the decompressed file contents
+	 * @throws IOException if an I/O error occurs reading from the stream, or the sidecar is missing
+	 * @throws ChecksumException if the compressed contents don't match the stored checksum
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytesVerified(File file) throws IOException, DataFormatException
+	{
+		byte[] compressed = Files.readAllBytes(file.toPath());
+		Crc32c.verify(file, Crc32c.checksum(compressed, 0, compressed.length));
+		return GZip.decompress(compressed);
+	}
+	
 	/**
 	 * Decompresses and loads a file into a String from a valid String path
 	 *
@@ -119,24 +163,168 @@ public class GZipDiskReader
 	public static ArrayList<String> read(File file) throws IOException, DataFormatException
 	{
 		ArrayList<String> array = new ArrayList<>();
-		
-		String fullString = readString(file);
-		
+		forEachLine(file, array::add);
+		return array;
+	}
+	
+	/**
+	 * Decompresses and loads a file into a byte Array from a valid String path without blocking the caller
+	 *
+	 * @param filePath any valid file path to open
+	 * @return a future completing with the decompressed contents, or exceptionally with the IOException or DataFormatException
+	 */
+	public static CompletableFuture<byte[]> readBytesAsync(String filePath)
+	{
+		return readBytesAsync(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a byte Array from a File object without blocking the caller.
+	 * The file is read asynchronously, then decompressed on a shared pool bounded to one thread per processor.
+	 *
+	 * @param file the file object to open
+	 * @return a future completing with the decompressed contents, or exceptionally with the IOException or DataFormatException
+	 */
+	public static CompletableFuture<byte[]> readBytesAsync(File file)
+	{
+		return AsyncDiskIO.readBytes(file).thenApplyAsync(compressed ->
+		{
+			try
+			{
+				return GZip.decompress(compressed);
+			}
+			catch (DataFormatException e)
+			{
+				throw new CompletionException(e);
+			}
+		}, DiskExecutors.compute());
+	}
+	
+	/**
+	 * Decompresses and loads a file into a String from a valid String path without blocking the caller
+	 *
+	 * @param filePath any valid file path to open
+	 * @return a future completing with the decompressed contents, or exceptionally with the IOException or DataFormatException
+	 */
+	public static CompletableFuture<String> readStringAsync(String filePath)
+	{
+		return readStringAsync(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses and loads a file into a String from a File object without blocking the caller
+	 *
+	 * @param file the file object to open
+	 * @return a future completing with the decompressed contents, or exceptionally with the IOException or DataFormatException
+	 */
+	public static CompletableFuture<String> readStringAsync(File file)
+	{
+		return readBytesAsync(file).thenApply(bytes -> new String(bytes, StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Loads many files into byte Arrays at once and decompresses them, each file is decompressed by the thread that read it.
+	 * Reads run concurrently on virtual threads on Java 21+, or a small shared pool otherwise, at most 64 at a time,
+	 * so loading many small files costs roughly the slowest read rather than the sum of them.
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 * @throws DataFormatException if the compressed data format of any of the files is invalid
+	 */
+	public static Map<File, byte[]> readAll(Collection<File> files) throws IOException, DataFormatException
+	{
+		return readAll(files, DiskExecutors.blocking());
+	}
+	
+	/**
+	 * Loads many files into byte Arrays at once and decompresses them, each file is decompressed by the thread that read it, running the reads on the specified executor.
+	 * The calling thread reads alongside the executor, so the batch completes even if the executor is saturated.
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @param executor the executor to run the reads on
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 * @throws DataFormatException if the compressed data format of any of the files is invalid
+	 */
+	public static Map<File, byte[]> readAll(Collection<File> files, ExecutorService executor) throws IOException, DataFormatException
+	{
+		return BatchReader.readAll(files, executor, GZipDiskReader::readBytes);
+	}
+	
+	/**
+	 * Loads many files into Strings at once and decompresses them, each file is decompressed by the thread that read it, see readAll
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 * @throws DataFormatException if the compressed data format of any of the files is invalid
+	 */
+	public static Map<File, String> readAllStrings(Collection<File> files) throws IOException, DataFormatException
+	{
+		return readAllStrings(files, DiskExecutors.blocking());
+	}
+	
+	/**
+	 * Loads many files into Strings at once and decompresses them, each file is decompressed by the thread that read it, running the reads on the specified executor
+	 *
+	 * @param files the files to read, duplicates are only read once
+	 * @param executor the executor to run the reads on
+	 * @return a Map of each file to its contents, in the order of the collection
+	 * @throws IOException if an I/O error occurs reading any of the files
+	 * @throws DataFormatException if the compressed data format of any of the files is invalid
+	 */
+	public static Map<File, String> readAllStrings(Collection<File> files, ExecutorService executor) throws IOException, DataFormatException
+	{
+		return BatchReader.readAll(files, executor, GZipDiskReader::readString);
+	}
+	
+	/**
+	 * Creates a read-through cache of decompressed files, a hit skips both the disk read and the decompression.
+	 * Cached files are revalidated against their last modified time and size on every read.
+	 *
+	 * @param maxBytes the most decompressed bytes the cache may hold before evicting the least recently used files
+	 * @return a new, empty CachedGZipDiskReader
+	 */
+	public static CachedGZipDiskReader newCache(long maxBytes)
+	{
+		return new CachedGZipDiskReader(maxBytes);
+	}
+	
+	/**
+	 * Decompresses and streams each line of a gzip file to the consumer from a valid String path.
+	 * The file is decompressed and decoded incrementally, so memory usage stays bounded regardless of the file size.
+	 *
+	 * @param filePath any valid file path to open
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs reading from the stream, or the compressed data format is invalid
+	 */
+	public static void forEachLine(String filePath, Consumer<String> consumer) throws IOException
+	{
+		forEachLine(new File(filePath), consumer);
+	}
+	
+	/**
+	 * Decompresses and streams each line of a gzip file to the consumer from a File object.
+	 * The file is decompressed and decoded incrementally, so memory usage stays bounded regardless of the file size.
+	 *
+	 * @param file the file object to open
+	 * @param consumer called once for each line of the file
+	 * @throws IOException if an I/O error occurs reading from the stream, or the compressed data format is invalid
+	 */
+	public static void forEachLine(File file, Consumer<String> consumer) throws IOException
+	{
 		BufferedReader reader = null;
 		try
 		{
-			reader = new BufferedReader(new StringReader(fullString));
-			String add;
+			reader = newReader(file);
+			String line;
 			
-			while ((add = reader.readLine()) != null)
+			while ((line = reader.readLine()) != null)
 			{
-				array.add(add);
+				consumer.accept(line);
 			}
 		}
-		catch (IOException e)
-		{
-			throw e;
-		}
 		finally
 		{
 			if (reader != null)
@@ -145,7 +333,54 @@ public class GZipDiskReader
 					reader.close();
 				} catch (Exception ex) {}
 		}
-		
-		return array;
+	}
+	
+	/**
+	 * Lazily decompresses and streams the lines of a gzip file from a valid String path.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param filePath any valid file path to open
+	 * @return a lazily populated String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> lines(String filePath) throws IOException
+	{
+		return lines(new File(filePath));
+	}
+	
+	/**
+	 * Lazily decompresses and streams the lines of a gzip file from a File object.
+	 * The returned Stream holds the file open, so it should be closed after use (try-with-resources).
+	 *
+	 * @param file the file object to open
+	 * @return a lazily populated String Stream with the file content lines
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	public static Stream<String> lines(File file) throws IOException
+	{
+		BufferedReader reader = newReader(file);
+		return reader.lines().onClose(() ->
+		{
+			try
+			{
+				reader.close();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Opens a decompressing UTF-8 reader with a fixed size buffer on the specified file
+	 *
+	 * @param file the file object to open
+	 * @return a buffered UTF-8 reader over the decompressed contents
+	 * @throws IOException if an I/O error occurs opening the file
+	 */
+	private static BufferedReader newReader(File file) throws IOException
+	{
+		return new BufferedReader(new InputStreamReader(new GZipInputStream(new FileInputStream(file)), StandardCharsets.UTF_8), BUFFER_SIZE);
 	}
 }
\ No newline at end of file
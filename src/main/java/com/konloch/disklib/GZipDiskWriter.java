@@ -1,12 +1,21 @@
 package com.konloch.disklib;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * Small disk writing util, with gzip compression built in
@@ -145,14 +154,7 @@ public class GZipDiskWriter
      */
     public static void append(File file, Collection<String> linesToWrite) throws IOException
     {
-        StringBuilder sb = new StringBuilder();
-        for (String s : linesToWrite)
-            if(sb.length() != 0)
-                sb.append(System.lineSeparator()).append(s);
-            else
-                sb.append(s);
-        
-        write(file, sb.toString().getBytes(StandardCharsets.UTF_8), true);
+        write(file, linesToWrite, true, new CompressionOptions());
     }
     
     /**
@@ -181,6 +183,62 @@ public class GZipDiskWriter
         write(file, fileContents, true);
     }
     
+    /**
+     * Appends a String Collection to a specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param linesToWrite String Collection lines to write
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void append(String file, Collection<String> linesToWrite, CompressionOptions options) throws IOException
+    {
+        append(new File(file), linesToWrite, options);
+    }
+    
+    /**
+     * Appends a String Collection to a specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file object
+     * @param linesToWrite String Collection lines to write
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void append(File file, Collection<String> linesToWrite, CompressionOptions options) throws IOException
+    {
+        write(file, linesToWrite, true, options);
+    }
+    
+    /**
+     * Appends a byte Array to the specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void append(String file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        write(new File(file), fileContents, true, options);
+    }
+    
+    /**
+     * Appends a byte Array to the specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void append(File file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        write(file, fileContents, true, options);
+    }
+    
     /**
      * Writes nothing to a specified file.
      * If the file doesn't exist it will automatically create it.
@@ -308,14 +366,7 @@ public class GZipDiskWriter
      */
     public static void write(File file, Collection<String> linesToWrite) throws IOException
     {
-        StringBuilder sb = new StringBuilder();
-        for (String s : linesToWrite)
-            if(sb.length() != 0)
-                sb.append(System.lineSeparator()).append(s);
-            else
-                sb.append(s);
-        
-        write(file, sb.toString().getBytes(StandardCharsets.UTF_8), false);
+        write(file, linesToWrite, false, new CompressionOptions());
     }
     
     /**
@@ -344,6 +395,204 @@ public class GZipDiskWriter
         write(file, fileContents, false);
     }
     
+    /**
+     * Writes a String Collection to a specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param linesToWrite String Collection lines to write
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(String file, Collection<String> linesToWrite, CompressionOptions options) throws IOException
+    {
+        write(new File(file), linesToWrite, options);
+    }
+    
+    /**
+     * Writes a String Collection to a specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file object
+     * @param linesToWrite String Collection lines to write
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(File file, Collection<String> linesToWrite, CompressionOptions options) throws IOException
+    {
+        write(file, linesToWrite, false, options);
+    }
+    
+    /**
+     * Writes a byte Array to the specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(String file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        write(new File(file), fileContents, false, options);
+    }
+    
+    /**
+     * Writes a byte Array to the specified file with the specified compression settings.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(File file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        write(file, fileContents, false, options);
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file without blocking the caller.
+     * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @return a future completing once the file is written and closed, or exceptionally with the IOException
+     */
+    public static CompletableFuture<Void> writeAsync(String file, byte[] fileContents)
+    {
+        return writeAsync(new File(file), fileContents, new CompressionOptions());
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file without blocking the caller.
+     * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @return a future completing once the file is written and closed, or exceptionally with the IOException
+     */
+    public static CompletableFuture<Void> writeAsync(File file, byte[] fileContents)
+    {
+        return writeAsync(file, fileContents, new CompressionOptions());
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file with the specified compression settings without blocking the caller.
+     * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @return a future completing once the file is written and closed, or exceptionally with the IOException
+     */
+    public static CompletableFuture<Void> writeAsync(String file, byte[] fileContents, CompressionOptions options)
+    {
+        return writeAsync(new File(file), fileContents, options);
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file with the specified compression settings without blocking the caller.
+     * The contents are compressed on a shared pool bounded to one thread per processor, then written asynchronously.
+     * The byte Array must not be modified until the future completes.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @return a future completing once the file is written and closed, or exceptionally with the IOException
+     */
+    public static CompletableFuture<Void> writeAsync(File file, byte[] fileContents, CompressionOptions options)
+    {
+        return CompletableFuture.supplyAsync(() -> GZip.compress(fileContents, options), DiskExecutors.compute())
+                .thenCompose(compressed -> AsyncDiskIO.write(file, compressed));
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file, then stores the CRC-32C of the compressed bytes in a sidecar file.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVerified(String file, byte[] fileContents) throws IOException
+    {
+        writeVerified(new File(file), fileContents, new CompressionOptions());
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file, then stores the CRC-32C of the compressed bytes in a sidecar file.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVerified(File file, byte[] fileContents) throws IOException
+    {
+        writeVerified(file, fileContents, new CompressionOptions());
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file with the specified compression settings,
+     * then stores the CRC-32C of the compressed bytes in a sidecar file.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file any valid file path to open
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVerified(String file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        writeVerified(new File(file), fileContents, options);
+    }
+    
+    /**
+     * Compresses and writes a byte Array to the specified file with the specified compression settings,
+     * then stores the CRC-32C of the compressed bytes in a sidecar file.
+     * The checksum covers what is on disk, so GZipDiskReader.readBytesVerified can reject corruption before inflating.
+     *
+     * @param file any valid file object
+     * @param fileContents byte Array of any size
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeVerified(File file, byte[] fileContents, CompressionOptions options) throws IOException
+    {
+        byte[] compressed = GZip.compress(fileContents, options);
+        DiskWriter.write(file, compressed);
+        Crc32c.writeSidecar(file, Crc32c.checksum(compressed, 0, compressed.length));
+    }
+    
+    /**
+     * Concatenates already compressed files into a target file without recompressing them.
+     * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+     *
+     * @param target any valid file path to write to
+     * @param sources any valid file paths written by GZipDiskWriter, in order
+     * @throws IOException if an I/O error occurs
+     */
+    public static void concat(String target, String... sources) throws IOException
+    {
+        DiskWriter.concat(target, sources);
+    }
+    
+    /**
+     * Concatenates already compressed files into a target file without recompressing them.
+     * Each source becomes one or more members of the target, which GZipDiskReader reads back in order.
+     * The bytes are spliced with FileChannel.transferTo, never passing through the Java heap.
+     * If the target doesn't exist it will automatically create it, otherwise it is overwritten.
+     *
+     * @param target the file object to write to
+     * @param sources the file objects written by GZipDiskWriter, in order
+     * @throws IOException if an I/O error occurs
+     */
+    public static void concat(File target, File... sources) throws IOException
+    {
+        DiskWriter.concat(target, sources);
+    }
+    
     /**
      * Writes or appends a byte Array to the specified file.
      * If the file doesn't exist it will automatically create it.
@@ -354,12 +603,27 @@ public class GZipDiskWriter
      * @throws IOException if an I/O error occurs
      */
     private static void write(File file, byte[] fileContents, boolean append) throws IOException
+    {
+        write(file, fileContents, append, new CompressionOptions());
+    }
+    
+    /**
+     * Writes or appends a byte Array to the specified file.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file the file object to open
+     * @param fileContents byte Array of any size
+     * @param append true to append files, false to overwrite files
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    private static void write(File file, byte[] fileContents, boolean append, CompressionOptions options) throws IOException
     {
         FileOutputStream writer = null;
         try
         {
             writer = new FileOutputStream(file, append);
-            writer.write(GZip.compress(fileContents));
+            writer.write(GZip.compress(fileContents, options));
         }
         finally
         {
@@ -370,4 +634,79 @@ public class GZipDiskWriter
                 } catch (Exception ex) {}
         }
     }
+    
+    /**
+     * Writes or appends a String Collection to the specified file.
+     * Each line is encoded and compressed straight through fixed size buffers, the lines are never joined in memory.
+     * Parallel block compression needs the whole input, so with a block size set the lines are joined first.
+     * If the file doesn't exist it will automatically create it.
+     *
+     * @param file the file object to open
+     * @param linesToWrite String Collection lines to write
+     * @param append true to append files, false to overwrite files
+     * @param options the compression settings to use
+     * @throws IOException if an I/O error occurs
+     */
+    private static void write(File file, Collection<String> linesToWrite, boolean append, CompressionOptions options) throws IOException
+    {
+        if (options.getBlockSize() > 0)
+        {
+            write(file, join(linesToWrite), append, options);
+            return;
+        }
+        
+        //gzip wraps raw deflate data in its own header and trailer, the CRC-32 is taken as the lines are encoded
+        boolean gzip = options.getFormat() == CompressionOptions.Format.GZIP;
+        Deflater deflater = GZip.acquireDeflater(options, gzip);
+        GZip.presetDictionary(deflater, options);
+        CRC32 crc = new CRC32();
+        Writer writer = null;
+        try
+        {
+            FileOutputStream out = new FileOutputStream(file, append);
+            DeflaterOutputStream compressor = new DeflaterOutputStream(out, deflater, options.getBufferSize());
+            OutputStream checked = gzip ? new CheckedOutputStream(compressor, crc) : compressor;
+            writer = new BufferedWriter(new OutputStreamWriter(checked, StandardCharsets.UTF_8), options.getBufferSize());
+            
+            if (gzip)
+                out.write(GZip.gzipHeader(options.getLevel()));
+            
+            DiskWriter.writeLines(writer, linesToWrite);
+            
+            //finish inside the try so write failures aren't hidden by the quiet close
+            writer.flush();
+            compressor.finish();
+            
+            if (gzip)
+                out.write(GZip.gzipTrailer(crc.getValue(), deflater.getBytesRead()));
+        }
+        finally
+        {
+            if (writer != null)
+                try
+                {
+                    writer.close();
+                } catch (Exception ex) {}
+            
+            GZip.releaseDeflater(deflater, gzip);
+        }
+    }
+    
+    /**
+     * Joins a String Collection into UTF-8 bytes, one line per entry
+     *
+     * @param linesToWrite String Collection lines to join
+     * @return UTF-8 byte Array of the joined lines
+     */
+    private static byte[] join(Collection<String> linesToWrite)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (String s : linesToWrite)
+            if(sb.length() != 0)
+                sb.append(System.lineSeparator()).append(s);
+            else
+                sb.append(s);
+        
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
 }
\ No newline at end of file
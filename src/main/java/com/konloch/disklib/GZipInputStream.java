@@ -0,0 +1,341 @@
+package com.konloch.disklib;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Streaming gzip decompression, walking across every concatenated member.
+ * This is what lets files built with GZipDiskWriter.append be read back in full.
+ * Each member may be either ZLib or RFC 1952 gzip, detected by its header, gzip trailers are verified.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class GZipInputStream extends InputStream
+{
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final InputStream in;
+	private final byte[] input;
+	private final byte[] single = new byte[1];
+	private final CRC32 crc = new CRC32();
+	private Inflater zlibInflater;
+	private Inflater rawInflater;
+	private Inflater inflater;
+	private int inputPosition;
+	private int inputEnd;
+	private boolean gzip;
+	private boolean eof;
+	private boolean closed;
+	
+	/**
+	 * Wraps the compressed input stream
+	 *
+	 * @param in compressed ZLib or gzip input stream, with one or more members
+	 */
+	public GZipInputStream(InputStream in)
+	{
+		this(in, BUFFER_SIZE);
+	}
+	
+	/**
+	 * Wraps the compressed input stream
+	 *
+	 * @param in compressed ZLib or gzip input stream, with one or more members
+	 * @param bufferSize the size of the compressed input buffer, at least large enough for a gzip trailer
+	 */
+	public GZipInputStream(InputStream in, int bufferSize)
+	{
+		if (bufferSize < 16)
+			throw new IllegalArgumentException("Buffer size must be at least 16 bytes");
+		
+		this.in = in;
+		this.input = new byte[bufferSize];
+	}
+	
+	@Override
+	public int read() throws IOException
+	{
+		return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException
+	{
+		if (closed)
+			throw new IOException("Stream closed");
+		
+		if (off < 0 || len < 0 || len > b.length - off)
+			throw new IndexOutOfBoundsException();
+		
+		if (len == 0)
+			return 0;
+		
+		while (!eof)
+		{
+			//between members, an empty stream or one ending cleanly after a member is the end of the data
+			if (inflater == null && !startMember())
+			{
+				eof = true;
+				break;
+			}
+			
+			int read;
+			try
+			{
+				read = inflater.inflate(b, off, len);
+			}
+			catch (DataFormatException e)
+			{
+				throw new ZipException(e.getMessage());
+			}
+			
+			if (read > 0)
+			{
+				if (gzip)
+					crc.update(b, off, read);
+				
+				return read;
+			}
+			
+			if (inflater.finished())
+			{
+				//the next member either starts in the leftover input, or in the next read from the stream
+				inputPosition = inputEnd - inflater.getRemaining();
+				
+				if (gzip)
+					checkTrailer();
+				
+				inflater = null;
+			}
+			else if (inflater.needsDictionary())
+			{
+				try
+				{
+					inflater.setDictionary(GZip.dictionary(inflater.getAdler()));
+				}
+				catch (DataFormatException e)
+				{
+					throw new ZipException(e.getMessage());
+				}
+			}
+			else if (inflater.needsInput())
+			{
+				//everything buffered has been consumed
+				inputPosition = inputEnd;
+				
+				if (!fill())
+					throw new EOFException("Unexpected end of compressed data");
+				
+				inflater.setInput(input, inputPosition, inputEnd - inputPosition);
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	public int available() throws IOException
+	{
+		if (closed)
+			throw new IOException("Stream closed");
+		
+		return eof ? 0 : 1;
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+			return;
+		
+		closed = true;
+		
+		if (zlibInflater != null)
+			GZip.releaseInflater(zlibInflater);
+		
+		if (rawInflater != null)
+			GZip.releaseInflater(rawInflater, true);
+		
+		in.close();
+	}
+	
+	/**
+	 * Detects the format of the next member, skips its header if it is gzip, and hands its data to the right inflater
+	 *
+	 * @return false if the stream ended cleanly instead of starting another member
+	 * @throws IOException if an I/O error occurs, or the header is invalid
+	 */
+	private boolean startMember() throws IOException
+	{
+		if (!ensure(1))
+			return false;
+		
+		gzip = ensure(2) && (input[inputPosition] & 0xFF) == 0x1F && (input[inputPosition + 1] & 0xFF) == 0x8B;
+		
+		if (gzip)
+		{
+			skipHeader();
+			crc.reset();
+			
+			if (rawInflater == null)
+				rawInflater = GZip.acquireInflater(true);
+			
+			inflater = rawInflater;
+		}
+		else
+		{
+			if (zlibInflater == null)
+				zlibInflater = GZip.acquireInflater();
+			
+			inflater = zlibInflater;
+		}
+		
+		inflater.reset();
+		inflater.setInput(input, inputPosition, inputEnd - inputPosition);
+		return true;
+	}
+	
+	/**
+	 * Validates and skips a gzip member header, including the optional extra field, file name, comment and header CRC
+	 *
+	 * @throws IOException if an I/O error occurs, or the header is invalid or truncated
+	 */
+	private void skipHeader() throws IOException
+	{
+		if (!ensure(10))
+			throw new EOFException("Unexpected end of gzip header");
+		
+		int flags = input[inputPosition + 3] & 0xFF;
+		if (input[inputPosition + 2] != Deflater.DEFLATED || (flags & GZip.FRESERVED) != 0)
+			throw new ZipException("Unsupported gzip header");
+		
+		inputPosition += 10;
+		
+		if ((flags & GZip.FEXTRA) != 0)
+		{
+			if (!ensure(2))
+				throw new EOFException("Unexpected end of gzip header");
+			
+			int length = (input[inputPosition] & 0xFF) | (input[inputPosition + 1] & 0xFF) << 8;
+			inputPosition += 2;
+			skip(length);
+		}
+		
+		if ((flags & GZip.FNAME) != 0)
+			skipZeroTerminated();
+		
+		if ((flags & GZip.FCOMMENT) != 0)
+			skipZeroTerminated();
+		
+		if ((flags & GZip.FHCRC) != 0)
+			skip(2);
+	}
+	
+	/**
+	 * Validates the gzip trailer of the member that just finished against what was decompressed
+	 *
+	 * @throws IOException if an I/O error occurs, or the trailer is truncated or doesn't match
+	 */
+	private void checkTrailer() throws IOException
+	{
+		if (!ensure(8))
+			throw new EOFException("Unexpected end of compressed data");
+		
+		if (GZip.readInt(input, inputPosition) != crc.getValue())
+			throw new ZipException("Corrupt gzip member, CRC-32 mismatch");
+		
+		if (GZip.readInt(input, inputPosition + 4) != (inflater.getBytesWritten() & 0xFFFFFFFFL))
+			throw new ZipException("Corrupt gzip member, size mismatch");
+		
+		inputPosition += 8;
+	}
+	
+	/**
+	 * Skips a zero terminated gzip header field
+	 *
+	 * @throws IOException if an I/O error occurs, or the stream ends first
+	 */
+	private void skipZeroTerminated() throws IOException
+	{
+		while (true)
+		{
+			if (!ensure(1))
+				throw new EOFException("Unexpected end of gzip header");
+			
+			if (input[inputPosition++] == 0)
+				return;
+		}
+	}
+	
+	/**
+	 * Skips a number of compressed input bytes
+	 *
+	 * @param count the number of bytes to skip
+	 * @throws IOException if an I/O error occurs, or the stream ends first
+	 */
+	private void skip(int count) throws IOException
+	{
+		while (count > 0)
+		{
+			if (!ensure(1))
+				throw new EOFException("Unexpected end of gzip header");
+			
+			int skipped = Math.min(count, inputEnd - inputPosition);
+			inputPosition += skipped;
+			count -= skipped;
+		}
+	}
+	
+	/**
+	 * Makes sure at least the specified number of unread bytes are buffered, keeping the unread bytes in place
+	 *
+	 * @param count the number of bytes needed, no larger than the buffer
+	 * @return false if the stream ends first
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 */
+	private boolean ensure(int count) throws IOException
+	{
+		while (inputEnd - inputPosition < count)
+			if (!fill())
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Reads more compressed input after the unread bytes, moving them to the start of the buffer first
+	 *
+	 * @return false if the underlying stream has ended
+	 * @throws IOException if an I/O error occurs reading from the stream
+	 */
+	private boolean fill() throws IOException
+	{
+		int unread = inputEnd - inputPosition;
+		if (inputPosition > 0)
+		{
+			System.arraycopy(input, inputPosition, input, 0, unread);
+			inputPosition = 0;
+			inputEnd = unread;
+		}
+		
+		int read;
+		do
+		{
+			read = in.read(input, inputEnd, input.length - inputEnd);
+		}
+		while (read == 0);
+		
+		if (read == -1)
+			return false;
+		
+		inputEnd += read;
+		return true;
+	}
+}
@@ -0,0 +1,323 @@
+package com.konloch.disklib;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * A pure Java LZ77 Codec using the LZ4 block format, for hot data where Deflate's CPU cost dominates.
+ * It trades ratio for speed, greedy matching through a single hash table and no entropy coding,
+ * so compression and especially decompression are several times faster than Deflate.
+ *
+ * <pre>
+ * [int uncompressed length][LZ4 block]
+ * </pre>
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class LZCodec implements Codec
+{
+	public static final String NAME = "lz4";
+	
+	private static final int MIN_MATCH = 4;
+	private static final int MAX_DISTANCE = 65535;
+	private static final int LAST_LITERALS = 5;
+	private static final int MATCH_FIND_LIMIT = 12;
+	private static final int HASH_LOG = 14;
+	private static final int SKIP_TRIGGER = 6;
+	private static final int RUN_MASK = 15;
+	private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+	
+	@Override
+	public String getName()
+	{
+		return NAME;
+	}
+	
+	@Override
+	public byte[] compress(byte[] data, int offset, int length)
+	{
+		//worst case, every byte is a literal plus one length byte per 255 literals
+		byte[] output = new byte[4 + length + length / 255 + 16];
+		writeInt(output, 0, length);
+		
+		int end = offset + length;
+		int matchLimit = end - LAST_LITERALS;
+		int matchFindLimit = end - MATCH_FIND_LIMIT;
+		int anchor = offset;
+		int position = offset;
+		int out = 4;
+		
+		//positions are stored one based, so a fresh table means no earlier occurrence
+		int[] table = new int[1 << HASH_LOG];
+		
+		while (position < matchFindLimit)
+		{
+			int sequence = readInt(data, position);
+			int hash = hash(sequence);
+			int reference = table[hash] - 1;
+			table[hash] = position + 1;
+			
+			if (reference < 0 || position - reference > MAX_DISTANCE || readInt(data, reference) != sequence)
+			{
+				//skip faster through data that isn't matching
+				position += 1 + ((position - anchor) >>> SKIP_TRIGGER);
+				continue;
+			}
+			
+			//extend the match backwards into the pending literals, then forwards
+			while (position > anchor && reference > offset && data[position - 1] == data[reference - 1])
+			{
+				position--;
+				reference--;
+			}
+			
+			int matchLength = MIN_MATCH;
+			while (position + matchLength < matchLimit && data[position + matchLength] == data[reference + matchLength])
+				matchLength++;
+			
+			out = writeSequence(data, anchor, position - anchor, position - reference, matchLength, output, out);
+			position += matchLength;
+			anchor = position;
+			
+			//index the end of the match, it often starts the next one
+			if (position < matchFindLimit)
+				table[hash(readInt(data, position - 2))] = position - 2 + 1;
+		}
+		
+		//the block always ends with literals
+		out = writeLiterals(data, anchor, end - anchor, output, out, 0);
+		return Arrays.copyOf(output, out);
+	}
+	
+	@Override
+	public byte[] decompress(byte[] data, int offset, int length) throws DataFormatException
+	{
+		if (length < 4)
+			throw new DataFormatException("Unexpected end of compressed data");
+		
+		int uncompressedLength = readIntBigEndian(data, offset);
+		if (uncompressedLength < 0 || uncompressedLength > MAX_LENGTH)
+			throw new DataFormatException("Invalid uncompressed length");
+		
+		byte[] output = new byte[uncompressedLength];
+		int end = offset + length;
+		int position = offset + 4;
+		int out = 0;
+		
+		while (true)
+		{
+			if (position >= end)
+				throw new DataFormatException("Unexpected end of compressed data");
+			
+			int token = data[position++] & 0xFF;
+			
+			//literals
+			int literalLength = token >>> 4;
+			if (literalLength == RUN_MASK)
+			{
+				long extended = readLength(data, position, end);
+				position += (int) (extended >>> 32);
+				literalLength += (int) extended;
+			}
+			
+			if (literalLength > end - position || literalLength > uncompressedLength - out)
+				throw new DataFormatException("Corrupt compressed data, literals out of bounds");
+			
+			System.arraycopy(data, position, output, out, literalLength);
+			position += literalLength;
+			out += literalLength;
+			
+			//the last sequence has no match
+			if (position == end)
+				break;
+			
+			//match
+			if (end - position < 2)
+				throw new DataFormatException("Unexpected end of compressed data");
+			
+			int distance = (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8;
+			position += 2;
+			if (distance == 0 || distance > out)
+				throw new DataFormatException("Corrupt compressed data, match offset out of bounds");
+			
+			int matchLength = token & RUN_MASK;
+			if (matchLength == RUN_MASK)
+			{
+				long extended = readLength(data, position, end);
+				position += (int) (extended >>> 32);
+				matchLength += (int) extended;
+			}
+			
+			matchLength += MIN_MATCH;
+			if (matchLength > uncompressedLength - out)
+				throw new DataFormatException("Corrupt compressed data, match out of bounds");
+			
+			int from = out - distance;
+			if (distance >= matchLength)
+			{
+				System.arraycopy(output, from, output, out, matchLength);
+				out += matchLength;
+			}
+			else
+			{
+				//an overlapping match repeats the bytes it is copying, so it has to be copied forwards one at a time
+				for (int i = 0; i < matchLength; i++)
+					output[out++] = output[from + i];
+			}
+		}
+		
+		if (out != uncompressedLength)
+			throw new DataFormatException("Corrupt compressed data, length mismatch");
+		
+		return output;
+	}
+	
+	/**
+	 * Writes one sequence, a run of literals followed by a match
+	 *
+	 * @param data the input byte Array
+	 * @param anchor the start of the literals
+	 * @param literalLength the number of literals
+	 * @param distance how far back the match starts
+	 * @param matchLength the length of the match, at least MIN_MATCH
+	 * @param output the output byte Array
+	 * @param out the output position
+	 * @return the output position after the sequence
+	 */
+	private static int writeSequence(byte[] data, int anchor, int literalLength, int distance, int matchLength, byte[] output, int out)
+	{
+		out = writeLiterals(data, anchor, literalLength, output, out, Math.min(matchLength - MIN_MATCH, RUN_MASK));
+		
+		output[out++] = (byte) distance;
+		output[out++] = (byte) (distance >>> 8);
+		
+		if (matchLength - MIN_MATCH >= RUN_MASK)
+			out = writeLength(matchLength - MIN_MATCH - RUN_MASK, output, out);
+		
+		return out;
+	}
+	
+	/**
+	 * Writes a token and a run of literals
+	 *
+	 * @param data the input byte Array
+	 * @param anchor the start of the literals
+	 * @param literalLength the number of literals
+	 * @param output the output byte Array
+	 * @param out the output position of the token
+	 * @param matchNibble the low half of the token
+	 * @return the output position after the literals
+	 */
+	private static int writeLiterals(byte[] data, int anchor, int literalLength, byte[] output, int out, int matchNibble)
+	{
+		int token = out++;
+		if (literalLength >= RUN_MASK)
+		{
+			output[token] = (byte) (RUN_MASK << 4 | matchNibble);
+			out = writeLength(literalLength - RUN_MASK, output, out);
+		}
+		else
+		{
+			output[token] = (byte) (literalLength << 4 | matchNibble);
+		}
+		
+		System.arraycopy(data, anchor, output, out, literalLength);
+		return out + literalLength;
+	}
+	
+	/**
+	 * Writes the remainder of a length that didn't fit in its token, as bytes of 255 and a final smaller byte
+	 *
+	 * @param remainder the length minus the token's maximum
+	 * @param output the output byte Array
+	 * @param out the output position
+	 * @return the output position after the length
+	 */
+	private static int writeLength(int remainder, byte[] output, int out)
+	{
+		while (remainder >= 255)
+		{
+			output[out++] = (byte) 255;
+			remainder -= 255;
+		}
+		
+		output[out++] = (byte) remainder;
+		return out;
+	}
+	
+	/**
+	 * Reads the remainder of a length that didn't fit in its token
+	 *
+	 * @param data compressed byte Array
+	 * @param position the start of the length bytes
+	 * @param end the end of the compressed data
+	 * @return the number of bytes read in the high half, and the length remainder in the low half
+	 * @throws DataFormatException if the length is truncated or too large
+	 */
+	private static long readLength(byte[] data, int position, int end) throws DataFormatException
+	{
+		int start = position;
+		int length = 0;
+		int value;
+		
+		do
+		{
+			if (position >= end)
+				throw new DataFormatException("Unexpected end of compressed data");
+			
+			value = data[position++] & 0xFF;
+			length += value;
+			
+			if (length > MAX_LENGTH)
+				throw new DataFormatException("Corrupt compressed data, length too large");
+		}
+		while (value == 255);
+		
+		return (long) (position - start) << 32 | length;
+	}
+	
+	/**
+	 * @param sequence four input bytes
+	 * @return the hash table slot for them
+	 */
+	private static int hash(int sequence)
+	{
+		return (sequence * -1640531535) >>> (32 - HASH_LOG);
+	}
+	
+	/**
+	 * @param data byte Array
+	 * @param position the first of the four bytes
+	 * @return the four bytes as a little endian int
+	 */
+	private static int readInt(byte[] data, int position)
+	{
+		return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8
+				| (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+	}
+	
+	/**
+	 * @param data byte Array
+	 * @param position the first of the four bytes
+	 * @return the four bytes as a big endian int
+	 */
+	private static int readIntBigEndian(byte[] data, int position)
+	{
+		return (data[position] & 0xFF) << 24 | (data[position + 1] & 0xFF) << 16
+				| (data[position + 2] & 0xFF) << 8 | (data[position + 3] & 0xFF);
+	}
+	
+	/**
+	 * @param output byte Array
+	 * @param position the first of the four bytes
+	 * @param value the int to write big endian
+	 */
+	private static void writeInt(byte[] output, int position, int value)
+	{
+		output[position] = (byte) (value >>> 24);
+		output[position + 1] = (byte) (value >>> 16);
+		output[position + 2] = (byte) (value >>> 8);
+		output[position + 3] = (byte) value;
+	}
+}
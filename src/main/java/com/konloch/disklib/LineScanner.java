@@ -0,0 +1,317 @@
+package com.konloch.disklib;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free line scanner over heap, direct and memory mapped ByteBuffers.
+ * Lines are split on '\n' (a trailing '\r' is dropped) and handed to a LineHandler as a slice of the buffer,
+ * no String is created unless the handler decodes one. The newline search tests 8 bytes at a time (SWAR).
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class LineScanner
+{
+	private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+	private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+	private static final int MAP_CHUNK_SIZE = Integer.MAX_VALUE;
+	
+	/**
+	 * Receives each line as a slice of the scanned buffer
+	 */
+	public interface LineHandler
+	{
+		/**
+		 * @param buffer the buffer holding the line, it must not be modified
+		 * @param offset the absolute index of the first byte of the line
+		 * @param length the number of bytes in the line, without the line ending
+		 */
+		void line(ByteBuffer buffer, int offset, int length);
+	}
+	
+	/**
+	 * Hands every '\n' terminated line between the buffer's position and limit to the handler.
+	 * The buffer's position is left unchanged.
+	 *
+	 * @param buffer the buffer to scan
+	 * @param handler called once for each terminated line
+	 * @return the absolute index of the unterminated tail, equal to the limit if the buffer ends on a newline
+	 */
+	public static int scan(ByteBuffer buffer, LineHandler handler)
+	{
+		int limit = buffer.limit();
+		int start = buffer.position();
+		int newline;
+		
+		while ((newline = indexOf(buffer, start, limit)) >= 0)
+		{
+			handler.line(buffer, start, trimCarriageReturn(buffer, start, newline));
+			start = newline + 1;
+		}
+		
+		return start;
+	}
+	
+	/**
+	 * Hands every line of a memory mapped file to the handler from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @param handler called once for each line of the file
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void forEachLine(String filePath, LineHandler handler) throws IOException
+	{
+		forEachLine(new File(filePath), handler);
+	}
+	
+	/**
+	 * Hands every line of a memory mapped file to the handler from a File object.
+	 * Lines are sliced straight out of the mapped region, only a line spanning two mapped chunks is copied.
+	 *
+	 * @param file the file object to read from
+	 * @param handler called once for each line of the file
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void forEachLine(File file, LineHandler handler) throws IOException
+	{
+		forEachLine(file, handler, MAP_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Hands every line of a memory mapped file to the handler
+	 *
+	 * @param file the file object to read from
+	 * @param handler called once for each line of the file
+	 * @param chunkSize the maximum size of each mapped buffer
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void forEachLine(File file, LineHandler handler, int chunkSize) throws IOException
+	{
+		//holds the start of a line that runs past the end of a mapped chunk
+		ByteBuffer carry = ByteBuffer.allocate(0);
+		
+		for (MappedByteBuffer chunk : DiskReader.mapChunks(file, chunkSize))
+		{
+			int limit = chunk.limit();
+			
+			if (carry.position() > 0)
+			{
+				int newline = indexOf(chunk, 0, limit);
+				carry = append(carry, chunk, 0, newline < 0 ? limit : newline);
+				if (newline < 0)
+					continue;
+				
+				handler.line(carry, 0, trimCarriageReturn(carry, 0, carry.position()));
+				((Buffer) carry).clear();
+				((Buffer) chunk).position(newline + 1);
+			}
+			
+			int tail = scan(chunk, handler);
+			carry = append(carry, chunk, tail, limit);
+		}
+		
+		if (carry.position() > 0)
+			handler.line(carry, 0, trimCarriageReturn(carry, 0, carry.position()));
+	}
+	
+	/**
+	 * Counts the lines of a memory mapped file from a valid String path
+	 *
+	 * @param filePath any valid file path to read from
+	 * @return the number of lines, counting an unterminated last line
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static long countLines(String filePath) throws IOException
+	{
+		return countLines(new File(filePath));
+	}
+	
+	/**
+	 * Counts the lines of a memory mapped file from a File object, without creating any Strings
+	 *
+	 * @param file the file object to read from
+	 * @return the number of lines, counting an unterminated last line
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static long countLines(File file) throws IOException
+	{
+		long count = 0;
+		byte last = '\n';
+		
+		for (MappedByteBuffer chunk : DiskReader.mapChunks(file))
+		{
+			count += countNewlines(chunk, 0, chunk.limit());
+			if (chunk.limit() > 0)
+				last = chunk.get(chunk.limit() - 1);
+		}
+		
+		return last == '\n' ? count : count + 1;
+	}
+	
+	/**
+	 * Counts the lines between the buffer's position and limit, the buffer's position is left unchanged
+	 *
+	 * @param buffer the buffer to scan
+	 * @return the number of lines, counting an unterminated last line
+	 */
+	public static long countLines(ByteBuffer buffer)
+	{
+		int from = buffer.position();
+		int to = buffer.limit();
+		long count = countNewlines(buffer, from, to);
+		
+		return to > from && buffer.get(to - 1) != '\n' ? count + 1 : count;
+	}
+	
+	/**
+	 * Finds the next '\n' in a range of the buffer, testing 8 bytes at a time
+	 *
+	 * @param buffer the buffer to search, in either byte order
+	 * @param from the absolute index to start searching at
+	 * @param to the absolute index to stop searching before
+	 * @return the absolute index of the newline, or -1 if there is none
+	 */
+	public static int indexOf(ByteBuffer buffer, int from, int to)
+	{
+		//getLong follows the buffer's byte order, which decides whether the first byte is the high or low byte
+		boolean littleEndian = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+		int i = from;
+		
+		for (; i + 8 <= to; i += 8)
+		{
+			long mask = newlineMask(buffer.getLong(i));
+			if (mask != 0)
+				return i + ((littleEndian ? Long.numberOfTrailingZeros(mask) : Long.numberOfLeadingZeros(mask)) >>> 3);
+		}
+		
+		for (; i < to; i++)
+			if (buffer.get(i) == '\n')
+				return i;
+		
+		return -1;
+	}
+	
+	/**
+	 * Tests whether a line starts with the specified bytes, for filtering lines without decoding them
+	 *
+	 * @param buffer the buffer holding the line
+	 * @param offset the absolute index of the first byte of the line
+	 * @param length the number of bytes in the line
+	 * @param prefix the bytes to look for
+	 * @return true if the line starts with the prefix
+	 */
+	public static boolean startsWith(ByteBuffer buffer, int offset, int length, byte[] prefix)
+	{
+		if (prefix.length > length)
+			return false;
+		
+		for (int i = 0; i < prefix.length; i++)
+			if (buffer.get(offset + i) != prefix[i])
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Decodes a line slice as UTF-8, for the lines a handler decides to keep
+	 *
+	 * @param buffer the buffer holding the line
+	 * @param offset the absolute index of the first byte of the line
+	 * @param length the number of bytes in the line
+	 * @return the decoded line
+	 */
+	public static String decode(ByteBuffer buffer, int offset, int length)
+	{
+		if (buffer.hasArray())
+			return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+		
+		byte[] bytes = new byte[length];
+		ByteBuffer slice = buffer.duplicate();
+		((Buffer) slice).position(offset);
+		slice.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Counts the '\n' bytes in a range of the buffer, testing 8 bytes at a time
+	 *
+	 * @param buffer the buffer to search
+	 * @param from the absolute index to start counting at
+	 * @param to the absolute index to stop counting before
+	 * @return the number of newlines
+	 */
+	private static long countNewlines(ByteBuffer buffer, int from, int to)
+	{
+		long count = 0;
+		int i = from;
+		
+		for (; i + 8 <= to; i += 8)
+			count += Long.bitCount(newlineMask(buffer.getLong(i)));
+		
+		for (; i < to; i++)
+			if (buffer.get(i) == '\n')
+				count++;
+		
+		return count;
+	}
+	
+	/**
+	 * Marks the '\n' bytes of a word.
+	 * XOR turns every '\n' into 0, then the exact zero byte test sets the high bit of only those bytes,
+	 * masking off each high bit before the add keeps carries from leaking into the next byte, so there are no false positives.
+	 *
+	 * @param word 8 bytes of the buffer
+	 * @return the word with the high bit set for each '\n' byte, and every other bit clear
+	 */
+	private static long newlineMask(long word)
+	{
+		long x = word ^ NEWLINES;
+		return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+	}
+	
+	/**
+	 * @param buffer the buffer holding the line
+	 * @param start the absolute index of the first byte of the line
+	 * @param end the absolute index of the line's '\n', or the end of the line
+	 * @return the length of the line without a trailing '\r'
+	 */
+	private static int trimCarriageReturn(ByteBuffer buffer, int start, int end)
+	{
+		return end > start && buffer.get(end - 1) == '\r' ? end - start - 1 : end - start;
+	}
+	
+	/**
+	 * Appends a range of a chunk to the carry buffer, growing it if needed
+	 *
+	 * @param carry the carry buffer, written up to its position
+	 * @param chunk the chunk to copy from
+	 * @param from the first index to copy
+	 * @param to the index after the last byte to copy
+	 * @return the carry buffer, which may be a new larger buffer
+	 */
+	private static ByteBuffer append(ByteBuffer carry, ByteBuffer chunk, int from, int to)
+	{
+		int length = to - from;
+		if (length == 0)
+			return carry;
+		
+		if (carry.remaining() < length)
+		{
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(carry.capacity() * 2, carry.position() + length));
+			((Buffer) carry).flip();
+			grown.put(carry);
+			carry = grown;
+		}
+		
+		ByteBuffer range = chunk.duplicate();
+		((Buffer) range).limit(to).position(from);
+		carry.put(range);
+		return carry;
+	}
+}
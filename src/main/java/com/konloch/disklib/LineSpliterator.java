@@ -0,0 +1,222 @@
+package com.konloch.disklib;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits a file into byte ranges aligned to the next newline, so every range holds whole lines
+ * and each worker can decode its own range from the shared FileChannel with positioned reads.
+ * Lines are split on '\n', a trailing '\r' is dropped.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class LineSpliterator implements Spliterator<String>
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int SCAN_SIZE = 8192;
+	private static final long MIN_SPLIT_SIZE = 1024 * 1024;
+	
+	private final FileChannel channel;
+	private long start;
+	private long end;
+	private long position;
+	private byte[] buffer;
+	private int bufferPosition;
+	private int bufferLimit;
+	private byte[] line;
+	private int lineLength;
+	private boolean started;
+	
+	/**
+	 * @param channel the channel to read from, shared between every split
+	 * @param start the first byte of the range, at the start of a line
+	 * @param end the byte after the range, just after a newline or at the end of the file
+	 */
+	LineSpliterator(FileChannel channel, long start, long end)
+	{
+		this.channel = channel;
+		this.start = start;
+		this.end = end;
+		this.position = start;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super String> action)
+	{
+		if (!started)
+		{
+			started = true;
+			buffer = new byte[BUFFER_SIZE];
+			line = new byte[256];
+		}
+		
+		try
+		{
+			while (true)
+			{
+				//look for the end of the line in what has been read so far
+				for (int i = bufferPosition; i < bufferLimit; i++)
+				{
+					if (buffer[i] != '\n')
+						continue;
+					
+					appendLine(bufferPosition, i);
+					bufferPosition = i + 1;
+					action.accept(takeLine());
+					return true;
+				}
+				
+				appendLine(bufferPosition, bufferLimit);
+				bufferPosition = bufferLimit;
+				
+				if (position >= end)
+				{
+					//only the last range of a file can end without a newline
+					if (lineLength == 0)
+						return false;
+					
+					action.accept(takeLine());
+					return true;
+				}
+				
+				fill();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public Spliterator<String> trySplit()
+	{
+		if (started || end - start < MIN_SPLIT_SIZE)
+			return null;
+		
+		try
+		{
+			long split = nextLineStart(start + (end - start) / 2);
+			if (split <= start || split >= end)
+				return null;
+			
+			//hand out the first half, keeping the second
+			LineSpliterator prefix = new LineSpliterator(channel, start, split);
+			this.start = split;
+			this.position = split;
+			return prefix;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public long estimateSize()
+	{
+		return end - position;
+	}
+	
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+	
+	/**
+	 * Finds the first line start at or after the specified position
+	 *
+	 * @param from the position to search from
+	 * @return the position just after the next newline, or the end of the range if there is none
+	 * @throws IOException if an I/O error occurs
+	 */
+	private long nextLineStart(long from) throws IOException
+	{
+		ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+		long offset = from;
+		
+		while (offset < end)
+		{
+			((Buffer) scan).clear();
+			int read = channel.read(scan, offset);
+			if (read <= 0)
+				break;
+			
+			byte[] bytes = scan.array();
+			for (int i = 0; i < read; i++)
+				if (bytes[i] == '\n')
+					return offset + i + 1;
+			
+			offset += read;
+		}
+		
+		return end;
+	}
+	
+	/**
+	 * Reads the next chunk of the range into the buffer
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void fill() throws IOException
+	{
+		ByteBuffer target = ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, end - position));
+		while (target.hasRemaining())
+		{
+			int read = channel.read(target, position + target.position());
+			if (read < 0)
+			{
+				//the file shrank underneath us, stop at what is there
+				end = position + target.position();
+				break;
+			}
+		}
+		
+		bufferPosition = 0;
+		bufferLimit = target.position();
+		position += bufferLimit;
+	}
+	
+	/**
+	 * Appends part of the buffer to the current line, growing it if needed
+	 *
+	 * @param from the first index to copy
+	 * @param to the index after the last byte to copy
+	 */
+	private void appendLine(int from, int to)
+	{
+		int length = to - from;
+		if (length == 0)
+			return;
+		
+		if (lineLength + length > line.length)
+			line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+		
+		System.arraycopy(buffer, from, line, lineLength, length);
+		lineLength += length;
+	}
+	
+	/**
+	 * Decodes and resets the current line, dropping the '\r' of a '\r\n' line ending
+	 *
+	 * @return the decoded line
+	 */
+	private String takeLine()
+	{
+		int length = lineLength;
+		if (length > 0 && line[length - 1] == '\r')
+			length--;
+		
+		lineLength = 0;
+		return new String(line, 0, length, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,101 @@
+package com.konloch.disklib;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * Each slot carries a sequence number, producers claim slots with a CAS on the tail and publish by
+ * advancing the slot sequence, so the consumer never sees a half written slot.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class MpscRingBuffer<E>
+{
+	private final int mask;
+	private final AtomicReferenceArray<E> slots;
+	private final AtomicLongArray sequences;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+	
+	/**
+	 * @param capacity the number of slots, rounded up to a power of two
+	 */
+	MpscRingBuffer(int capacity)
+	{
+		if (capacity <= 0 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		
+		this.mask = size - 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		
+		for (int i = 0; i < size; i++)
+			sequences.set(i, i);
+	}
+	
+	/**
+	 * Adds an element, safe to call from any thread
+	 *
+	 * @param element the element to add
+	 * @return false if the ring buffer is full
+	 */
+	boolean offer(E element)
+	{
+		while (true)
+		{
+			long position = tail.get();
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			
+			if (difference == 0)
+			{
+				if (tail.compareAndSet(position, position + 1))
+				{
+					slots.set(index, element);
+					sequences.set(index, position + 1);
+					return true;
+				}
+			}
+			else if (difference < 0)
+			{
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the oldest element, only the single consumer thread may call this
+	 *
+	 * @return the oldest element, or null if the ring buffer is empty
+	 */
+	E poll()
+	{
+		long position = head;
+		int index = (int) position & mask;
+		
+		if (sequences.get(index) != position + 1)
+			return null;
+		
+		E element = slots.get(index);
+		slots.set(index, null);
+		sequences.set(index, position + mask + 1);
+		head = position + 1;
+		return element;
+	}
+	
+	/**
+	 * @return true if there is nothing left to poll
+	 */
+	boolean isEmpty()
+	{
+		long position = head;
+		return sequences.get((int) position & mask) != position + 1;
+	}
+}
@@ -0,0 +1,172 @@
+package com.konloch.disklib;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Hands out the lines of a file from the last to the first, reading backwards from the end in fixed-size chunks,
+ * so reading the last few lines costs the bytes of those lines rather than the whole file.
+ * Lines are split on '\n' and a trailing '\r' is dropped, a newline at the very end of the file doesn't start an empty line.
+ * Every line is decoded as UTF-8 only once all of its bytes are read, and '\n' never appears inside a multi-byte character,
+ * so chunk boundaries can't split a character.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+class ReverseLineSpliterator implements Spliterator<String>
+{
+	private static final int CHUNK_SIZE = 8192;
+	
+	private final FileChannel channel;
+	private byte[] buffer;
+	private long base;
+	private long bufferStart;
+	private long end;
+	private boolean started;
+	private boolean finished;
+	
+	/**
+	 * @param channel the channel to read from, it is read from its current size backwards
+	 */
+	ReverseLineSpliterator(FileChannel channel)
+	{
+		this.channel = channel;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super String> action)
+	{
+		try
+		{
+			if (!started)
+				start();
+			
+			if (finished)
+				return false;
+			
+			//look for the newline before the line, reading further back until one is found or the file starts
+			long search = end;
+			while (true)
+			{
+				for (long position = search - 1; position >= bufferStart; position--)
+				{
+					if (buffer[(int) (position - base)] != '\n')
+						continue;
+					
+					String line = decode(position + 1, end);
+					end = position;
+					action.accept(line);
+					return true;
+				}
+				
+				if (bufferStart == 0)
+				{
+					finished = true;
+					action.accept(decode(0, end));
+					return true;
+				}
+				
+				search = bufferStart;
+				readChunk();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	@Override
+	public Spliterator<String> trySplit()
+	{
+		return null;
+	}
+	
+	@Override
+	public long estimateSize()
+	{
+		return finished ? 0 : Long.MAX_VALUE;
+	}
+	
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+	
+	/**
+	 * Reads the last chunk and skips the newline ending the file, if there is one
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void start() throws IOException
+	{
+		started = true;
+		buffer = new byte[CHUNK_SIZE];
+		end = channel.size();
+		bufferStart = end;
+		base = end - buffer.length;
+		
+		if (end == 0)
+		{
+			finished = true;
+			return;
+		}
+		
+		readChunk();
+		if (buffer[(int) (end - 1 - base)] == '\n')
+			end--;
+	}
+	
+	/**
+	 * Reads the chunk before the buffered bytes, keeping only the bytes of the line still being searched.
+	 * The buffer only grows once a line is too long to fit alongside a chunk.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void readChunk() throws IOException
+	{
+		int kept = (int) (end - bufferStart);
+		int size = (int) Math.min(CHUNK_SIZE, bufferStart);
+		
+		//keep the line's bytes at the end of the buffer, leaving the room before them for the chunk
+		byte[] target = kept + size > buffer.length ? new byte[Math.max(buffer.length * 2, kept + size)] : buffer;
+		System.arraycopy(buffer, (int) (bufferStart - base), target, target.length - kept, kept);
+		buffer = target;
+		base = end - buffer.length;
+		bufferStart -= size;
+		
+		ByteBuffer chunk = ByteBuffer.wrap(buffer, (int) (bufferStart - base), size);
+		long position = bufferStart;
+		while (chunk.hasRemaining())
+		{
+			int read = channel.read(chunk, position);
+			if (read < 0)
+				throw new EOFException("File was truncated while reading it backwards");
+			
+			position += read;
+		}
+	}
+	
+	/**
+	 * @param from the file offset of the first byte of the line
+	 * @param to the file offset just after the line, before its newline
+	 * @return the line decoded as UTF-8, without a trailing '\r'
+	 */
+	private String decode(long from, long to)
+	{
+		int offset = (int) (from - base);
+		int length = (int) (to - from);
+		
+		if (length > 0 && buffer[offset + length - 1] == '\r')
+			length--;
+		
+		return new String(buffer, offset, length, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,291 @@
+package com.konloch.disklib;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random access reader for the seekable block-compressed format written by SeekableGZipWriter.
+ * Only the blocks covering the requested range are read and inflated,
+ * so a point lookup costs about one block of work no matter how large the file is.
+ * Files written with a dictionary need it registered with GZipDictionary.register before reading.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class SeekableGZipReader
+{
+	/**
+	 * Decompresses a range of a seekable file from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @param offset the uncompressed position to start reading from
+	 * @param length the number of uncompressed bytes to read
+	 * @return byte Array with the range, shorter than the length if the range runs past the end of the file
+	 * @throws IOException if an I/O error occurs reading from the file
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] read(String filePath, long offset, int length) throws IOException, DataFormatException
+	{
+		return read(new File(filePath), offset, length);
+	}
+	
+	/**
+	 * Decompresses a range of a seekable file from a File object
+	 *
+	 * @param file the file object to open
+	 * @param offset the uncompressed position to start reading from
+	 * @param length the number of uncompressed bytes to read
+	 * @return byte Array with the range, shorter than the length if the range runs past the end of the file
+	 * @throws IOException if an I/O error occurs reading from the file
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] read(File file, long offset, int length) throws IOException, DataFormatException
+	{
+		if (offset < 0 || length < 0)
+			throw new IllegalArgumentException("Offset and length must not be negative");
+		
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			Footer footer = readFooter(channel);
+			return read(channel, footer, offset, (int) Math.max(0, Math.min(length, footer.length - offset)));
+		}
+	}
+	
+	/**
+	 * Decompresses a whole seekable file from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the file
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytes(String filePath) throws IOException, DataFormatException
+	{
+		return readBytes(new File(filePath));
+	}
+	
+	/**
+	 * Decompresses a whole seekable file from a File object
+	 *
+	 * @param file the file object to open
+	 * @return byte Array with the file contents
+	 * @throws IOException if an I/O error occurs reading from the file, or it is larger than 2 GB
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	public static byte[] readBytes(File file) throws IOException, DataFormatException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			Footer footer = readFooter(channel);
+			if (footer.length > Integer.MAX_VALUE - 8)
+				throw new IOException("File is too large to read into a byte Array: " + file);
+			
+			return read(channel, footer, 0, (int) footer.length);
+		}
+	}
+	
+	/**
+	 * Returns the uncompressed size of a seekable file from a valid String path
+	 *
+	 * @param filePath any valid file path to open
+	 * @return the number of uncompressed bytes
+	 * @throws IOException if an I/O error occurs reading from the file
+	 */
+	public static long length(String filePath) throws IOException
+	{
+		return length(new File(filePath));
+	}
+	
+	/**
+	 * Returns the uncompressed size of a seekable file from a File object, only the footer is read
+	 *
+	 * @param file the file object to open
+	 * @return the number of uncompressed bytes
+	 * @throws IOException if an I/O error occurs reading from the file
+	 */
+	public static long length(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			return readFooter(channel).length;
+		}
+	}
+	
+	/**
+	 * Inflates the blocks covering a range and copies the range out of them
+	 *
+	 * @param channel the open seekable file
+	 * @param footer the file's footer
+	 * @param offset the uncompressed position to start reading from
+	 * @param length the number of uncompressed bytes to read, already clamped to the end of the file
+	 * @return byte Array with the range
+	 * @throws IOException if an I/O error occurs reading from the file
+	 * @throws DataFormatException if the compressed data format is invalid
+	 */
+	private static byte[] read(FileChannel channel, Footer footer, long offset, int length) throws IOException, DataFormatException
+	{
+		byte[] result = new byte[length];
+		if (length == 0)
+			return result;
+		
+		int firstBlock = (int) (offset / footer.blockSize);
+		int lastBlock = (int) ((offset + length - 1) / footer.blockSize);
+		
+		//only the index entries for the covered blocks are read, plus the start of the block after them
+		long[] starts = new long[lastBlock - firstBlock + 2];
+		ByteBuffer index = ByteBuffer.allocate(8 * Math.min(starts.length, footer.blockCount - firstBlock));
+		readFully(channel, index, footer.indexOffset + 8L * firstBlock);
+		
+		for (int i = 0; i < starts.length; i++)
+			starts[i] = index.hasRemaining() ? index.getLong() : footer.indexOffset;
+		
+		Inflater inflater = GZip.acquireInflater();
+		try
+		{
+			int written = 0;
+			for (int block = firstBlock; block <= lastBlock; block++)
+			{
+				long blockStart = (long) block * footer.blockSize;
+				int blockLength = (int) Math.min(footer.blockSize, footer.length - blockStart);
+				long compressedStart = starts[block - firstBlock];
+				long compressedEnd = starts[block - firstBlock + 1];
+				
+				if (compressedEnd < compressedStart || compressedEnd > footer.indexOffset)
+					throw new DataFormatException("Corrupt block index");
+				
+				ByteBuffer compressed = ByteBuffer.allocate((int) (compressedEnd - compressedStart));
+				readFully(channel, compressed, compressedStart);
+				
+				byte[] uncompressed = inflate(inflater, compressed.array(), blockLength);
+				
+				//copy the part of this block that overlaps the range
+				int from = (int) Math.max(0, offset - blockStart);
+				int to = (int) Math.min(blockLength, offset + length - blockStart);
+				System.arraycopy(uncompressed, from, result, written, to - from);
+				written += to - from;
+			}
+		}
+		finally
+		{
+			GZip.releaseInflater(inflater);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Inflates one complete block
+	 *
+	 * @param inflater the Inflater to use, it is reset before use
+	 * @param compressed the compressed block
+	 * @param blockLength the uncompressed size of the block
+	 * @return byte Array with the uncompressed block
+	 * @throws DataFormatException if the compressed data format is invalid, or its dictionary isn't registered
+	 */
+	private static byte[] inflate(Inflater inflater, byte[] compressed, int blockLength) throws DataFormatException
+	{
+		inflater.reset();
+		inflater.setInput(compressed);
+		
+		byte[] uncompressed = new byte[blockLength];
+		int inflated = 0;
+		while (inflated < blockLength)
+		{
+			int read = inflater.inflate(uncompressed, inflated, blockLength - inflated);
+			if (read == 0 && inflater.needsDictionary())
+			{
+				inflater.setDictionary(GZip.dictionary(inflater.getAdler()));
+				continue;
+			}
+			
+			if (read == 0 && (inflater.finished() || inflater.needsInput()))
+				break;
+			
+			inflated += read;
+		}
+		
+		//the block must be exactly as long as the footer says, the stream may still have its checksum to consume
+		if (inflated == blockLength && !inflater.finished() && inflater.inflate(new byte[1]) != 0)
+			inflated++;
+		
+		if (inflated != blockLength || !inflater.finished())
+			throw new DataFormatException("Corrupt compressed block");
+		
+		return uncompressed;
+	}
+	
+	/**
+	 * Reads and validates the footer at the end of the file
+	 *
+	 * @param channel the open seekable file
+	 * @return the parsed footer
+	 * @throws IOException if an I/O error occurs, or the file isn't in the seekable format
+	 */
+	private static Footer readFooter(FileChannel channel) throws IOException
+	{
+		long size = channel.size();
+		if (size < SeekableGZipWriter.FOOTER_SIZE)
+			throw new IOException("Not a seekable compressed file");
+		
+		ByteBuffer buffer = ByteBuffer.allocate(SeekableGZipWriter.FOOTER_SIZE);
+		readFully(channel, buffer, size - SeekableGZipWriter.FOOTER_SIZE);
+		
+		Footer footer = new Footer(buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+		if (buffer.getLong() != SeekableGZipWriter.MAGIC)
+			throw new IOException("Not a seekable compressed file");
+		
+		if (footer.blockSize <= 0 || footer.blockCount < 0 || footer.length < 0
+				|| footer.indexOffset + 8L * footer.blockCount + SeekableGZipWriter.FOOTER_SIZE != size
+				|| (footer.length + footer.blockSize - 1) / footer.blockSize != footer.blockCount)
+			throw new IOException("Corrupt seekable compressed file footer");
+		
+		return footer;
+	}
+	
+	/**
+	 * Fills a buffer from a position in the file, then flips it for reading
+	 *
+	 * @param channel the channel to read from
+	 * @param buffer the buffer to fill
+	 * @param position the file position to start reading at
+	 * @throws IOException if an I/O error occurs, or the file ends first
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0)
+				throw new EOFException("Unexpected end of seekable compressed file");
+		}
+		
+		//cast to Buffer so the call links against Java 8, where flip isn't overridden by ByteBuffer
+		((Buffer) buffer).flip();
+	}
+	
+	/**
+	 * The fixed size trailer describing the block layout
+	 */
+	private static class Footer
+	{
+		private final long indexOffset;
+		private final int blockSize;
+		private final int blockCount;
+		private final long length;
+		
+		private Footer(long indexOffset, int blockSize, int blockCount, long length)
+		{
+			this.indexOffset = indexOffset;
+			this.blockSize = blockSize;
+			this.blockCount = blockCount;
+			this.length = length;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.konloch.disklib;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the seekable block-compressed format read by SeekableGZipReader.
+ * The input is split into fixed size blocks, each compressed as its own independent ZLib stream,
+ * followed by an index of where every block starts and a fixed size footer:
+ *
+ * <pre>
+ * [block 0][block 1]...[block n-1]
+ * [long offset of block 0]...[long offset of block n-1]
+ * [long index offset][int block size][int block count][long uncompressed length][long magic]
+ * </pre>
+ *
+ * A point lookup only has to inflate the blocks covering the requested range, instead of the whole file.
+ * Files in this format are not readable with GZipDiskReader, use SeekableGZipReader instead.
+ *
+ * @author Konloch
+ * @since Oct 18, 2026
+ */
+public class SeekableGZipWriter
+{
+	static final long MAGIC = 0x444C5345454B3031L; //DLSEEK01
+	static final int FOOTER_SIZE = 32;
+	
+	/**
+	 * Compresses a byte Array into a seekable file from a valid String path.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param filePath any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(String filePath, byte[] fileContents) throws IOException
+	{
+		write(new File(filePath), fileContents);
+	}
+	
+	/**
+	 * Compresses a byte Array into a seekable file from a File object.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file the file object to open
+	 * @param fileContents byte Array of any size
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(File file, byte[] fileContents) throws IOException
+	{
+		write(file, fileContents, new CompressionOptions());
+	}
+	
+	/**
+	 * Compresses a byte Array into a seekable file from a valid String path.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param filePath any valid file path to open
+	 * @param fileContents byte Array of any size
+	 * @param options the compression settings to use, the block size doubles as the seek granularity
+	 * @throws IOException if an I/O error occurs
+	 * @throws IllegalArgumentException if the options use Format.GZIP
+	 */
+	public static void write(String filePath, byte[] fileContents, CompressionOptions options) throws IOException
+	{
+		write(new File(filePath), fileContents, options);
+	}
+	
+	/**
+	 * Compresses a byte Array into a seekable file from a File object.
+	 * Smaller blocks make lookups cheaper at the cost of a worse compression ratio,
+	 * when the options have no block size CompressionOptions.DEFAULT_BLOCK_SIZE is used.
+	 * Blocks are always ZLib streams, so options using Format.GZIP are rejected.
+	 * A dictionary on the options primes every block, it must be registered with GZipDictionary when reading the file back.
+	 * If the file doesn't exist it will automatically create it, otherwise it is overwritten.
+	 *
+	 * @param file the file object to open
+	 * @param fileContents byte Array of any size
+	 * @param options the compression settings to use, the block size doubles as the seek granularity
+	 * @throws IOException if an I/O error occurs
+	 * @throws IllegalArgumentException if the options use Format.GZIP
+	 */
+	public static void write(File file, byte[] fileContents, CompressionOptions options) throws IOException
+	{
+		if (options.getFormat() == CompressionOptions.Format.GZIP)
+			throw new IllegalArgumentException("Seekable files are always written as ZLib blocks, Format.GZIP is not supported");
+		
+		int blockSize = options.getBlockSize() > 0 ? options.getBlockSize() : CompressionOptions.DEFAULT_BLOCK_SIZE;
+		int blockCount = (int) ((fileContents.length + (long) blockSize - 1) / blockSize);
+		long[] offsets = new long[blockCount];
+		long position = 0;
+		
+		Deflater deflater = GZip.acquireDeflater(options);
+		
+		//closing flushes the footer, so a failed close means a truncated file and has to reach the caller
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), options.getBufferSize())))
+		{
+			byte[] buffer = new byte[options.getBufferSize()];
+			
+			//every block is a complete stream of its own, so it can be inflated without the blocks before it
+			for (int i = 0; i < blockCount; i++)
+			{
+				int offset = i * blockSize;
+				offsets[i] = position;
+				
+				//reset drops the dictionary, so every block is primed with it again
+				deflater.reset();
+				GZip.presetDictionary(deflater, options);
+				deflater.setInput(fileContents, offset, Math.min(blockSize, fileContents.length - offset));
+				deflater.finish();
+				
+				while (!deflater.finished())
+				{
+					int written = deflater.deflate(buffer);
+					out.write(buffer, 0, written);
+					position += written;
+				}
+			}
+			
+			for (long offset : offsets)
+				out.writeLong(offset);
+			
+			out.writeLong(position);
+			out.writeInt(blockSize);
+			out.writeInt(blockCount);
+			out.writeLong(fileContents.length);
+			out.writeLong(MAGIC);
+		}
+		finally
+		{
+			GZip.releaseDeflater(deflater);
+		}
+	}
+}
@@ -1,12 +1,37 @@
 package com.konloch;
 
+import com.konloch.disklib.AsyncDiskWriter;
+import com.konloch.disklib.CachedDiskReader;
+import com.konloch.disklib.Codecs;
+import com.konloch.disklib.CompressedDiskReader;
+import com.konloch.disklib.CompressedDiskWriter;
+import com.konloch.disklib.CompressionOptions;
+import com.konloch.disklib.DiskAppender;
+import com.konloch.disklib.DiskReader;
+import com.konloch.disklib.DiskTailer;
 import com.konloch.disklib.DiskWriter;
+import com.konloch.disklib.GZip;
+import com.konloch.disklib.GZipCodec;
+import com.konloch.disklib.GZipDictionary;
+import com.konloch.disklib.GZipDiskReader;
 import com.konloch.disklib.GZipDiskWriter;
+import com.konloch.disklib.LZCodec;
+import com.konloch.disklib.LineScanner;
+import com.konloch.disklib.SeekableGZipReader;
+import com.konloch.disklib.SeekableGZipWriter;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 /**
  * Used to test the API
@@ -42,6 +67,102 @@ public class DiskLibTest
 		set = new HashSet<>(Arrays.asList(new String[]{"line 1", "line 2", "line 3"}));
 		DiskWriter.write(path, set);
 		
+		try (DiskAppender appender = DiskWriter.openAppender(path))
+		{
+			appender.append("line", true);
+			appender.append("bytes".getBytes(StandardCharsets.UTF_8));
+			appender.flush();
+		}
+		
+		try (AsyncDiskWriter writer = DiskWriter.openAsync(new File(path), AsyncDiskWriter.FsyncPolicy.EVERY_BATCH, 0))
+		{
+			writer.append("line", true);
+			writer.append("bytes".getBytes(StandardCharsets.UTF_8)).get();
+		}
+		
+		//closing from a callback is safe, it runs on the writer thread which finishes closing once the callback returns
+		AsyncDiskWriter callbackWriter = DiskWriter.openAsync(new File(path), AsyncDiskWriter.FsyncPolicy.NEVER, 0);
+		callbackWriter.append("closed by callback", true).thenRun(() ->
+		{
+			try
+			{
+				callbackWriter.close();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}).get();
+		callbackWriter.close();
+		
+		DiskWriter.writeAtomic(path, "atomic line");
+		DiskWriter.writeAtomic(new File(path), "atomic bytes".getBytes(StandardCharsets.UTF_8), false);
+		
+		DiskReader.read(path);
+		DiskReader.forEachLine(path, System.out::println);
+		
+		try (Stream<String> lines = DiskReader.lines(path))
+		{
+			lines.forEach(System.out::println);
+		}
+		
+		try (Stream<String> lines = DiskReader.parallelLines(path))
+		{
+			System.out.println(lines.filter(line -> line.startsWith("line")).count());
+		}
+		
+		DiskReader.map(path);
+		DiskReader.mapChunks(path);
+		DiskReader.indexOf(path, "line 2".getBytes(StandardCharsets.UTF_8));
+		DiskReader.forEachMappedLine(path, System.out::println);
+		DiskReader.tailLines(path, 2).forEach(System.out::println);
+		
+		try (Stream<String> lines = DiskReader.reverseLines(path))
+		{
+			lines.limit(2).forEach(System.out::println);
+		}
+		
+		try (DiskTailer tailer = DiskReader.openTailer(path))
+		{
+			DiskWriter.append(path, "tailed line", true);
+			tailer.poll(System.out::println, 1, TimeUnit.SECONDS);
+		}
+		
+		byte[] prefix = "line".getBytes(StandardCharsets.UTF_8);
+		System.out.println(LineScanner.countLines(path));
+		LineScanner.forEachLine(path, (buffer, offset, length) ->
+		{
+			if (LineScanner.startsWith(buffer, offset, length, prefix))
+				System.out.println(LineScanner.decode(buffer, offset, length));
+		});
+		
+		CachedDiskReader cache = DiskReader.newCache(16 * 1024 * 1024);
+		cache.read(path);
+		cache.readString(path);
+		cache.readBytes(path);
+		System.out.println(cache.getHits() + " hits, " + cache.getMisses() + " misses, " + cache.getSize() + " bytes");
+		
+		DiskWriter.copy(path, path + ".copy");
+		DiskWriter.concat(path + ".concat", path, path + ".copy");
+		DiskWriter.transfer(path + ".concat", Channels.newChannel(System.out));
+		
+		DiskWriter.writeVerified(path + ".verified", list);
+		DiskReader.readStringVerified(path + ".verified");
+		new File(path + ".verified.crc32c").delete();
+		new File(path + ".verified").delete();
+		
+		File asyncFile = new File(path + ".async");
+		DiskWriter.writeAsync(asyncFile, "async line")
+				.thenCompose(ignored -> DiskReader.readStringAsync(asyncFile))
+				.thenAccept(System.out::println)
+				.join();
+		asyncFile.delete();
+		
+		DiskReader.readAllStrings(Arrays.asList(new File(path), new File(path + ".copy")))
+				.forEach((file, contents) -> System.out.println(file + ": " + contents.length()));
+		
+		new File(path + ".copy").delete();
+		new File(path + ".concat").delete();
 		new File(path).delete();
 		path = "gzipTestFile";
 		
@@ -67,6 +188,64 @@ public class DiskLibTest
 		set = new HashSet<>(Arrays.asList(new String[]{"line 1", "line 2", "line 3"}));
 		GZipDiskWriter.write(path, set);
 		
+		GZipDiskWriter.write(path, list, CompressionOptions.fastest());
+		GZipDiskWriter.append(path, list, CompressionOptions.smallest());
+		GZipDiskWriter.append(path, "bytes".getBytes(StandardCharsets.UTF_8), new CompressionOptions()
+				.setLevel(Deflater.BEST_SPEED).setStrategy(Deflater.HUFFMAN_ONLY).setBufferSize(64 * 1024));
+		GZipDiskWriter.append(path, list, CompressionOptions.parallel().setBlockSize(16));
+		
+		GZipDiskWriter.append(path, list, CompressionOptions.gzip());
+		GZipDiskWriter.append(path, "bytes".getBytes(StandardCharsets.UTF_8), CompressionOptions.gzip().setBlockSize(2));
+		GZipDiskWriter.append(path, "appended line", true);
+		GZipDiskWriter.concat(path + ".concat", path, path);
+		GZipDiskReader.read(path + ".concat");
+		new File(path + ".concat").delete();
+		
+		SeekableGZipWriter.write(path + ".seekable", GZipDiskReader.readBytes(path), new CompressionOptions().setBlockSize(64 * 1024));
+		SeekableGZipReader.read(path + ".seekable", 5, 10);
+		SeekableGZipReader.readBytes(path + ".seekable");
+		new File(path + ".seekable").delete();
+		
+		GZipDiskWriter.writeVerified(path + ".verified", "bytes".getBytes(StandardCharsets.UTF_8));
+		GZipDiskReader.readBytesVerified(path + ".verified");
+		new File(path + ".verified.crc32c").delete();
+		new File(path + ".verified").delete();
+		
+		GZipDiskWriter.writeAsync(path + ".async", "bytes".getBytes(StandardCharsets.UTF_8)).join();
+		GZipDiskReader.readStringAsync(path + ".async").join();
+		GZipDiskReader.readAll(Arrays.asList(new File(path), new File(path + ".async")));
+		new File(path + ".async").delete();
+		
+		GZipDictionary dictionary = GZipDictionary.train(Arrays.asList(
+				"{\"name\": \"first\", \"enabled\": true}".getBytes(StandardCharsets.UTF_8),
+				"{\"name\": \"second\", \"enabled\": false}".getBytes(StandardCharsets.UTF_8)), GZipDictionary.DEFAULT_SIZE);
+		GZipDictionary.register(dictionary);
+		GZipDiskWriter.write(path + ".dict", "{\"name\": \"third\", \"enabled\": true}".getBytes(StandardCharsets.UTF_8),
+				new CompressionOptions().setDictionary(dictionary));
+		GZipDiskReader.readString(path + ".dict");
+		new File(path + ".dict").delete();
+		
+		ByteBuffer direct = ByteBuffer.allocateDirect(GZip.compressBound(64));
+		GZip.compress(ByteBuffer.wrap("compressed without copies".getBytes(StandardCharsets.UTF_8)), direct);
+		((Buffer) direct).flip();
+		GZip.decompress(direct, ByteBuffer.allocate(64));
+		
+		CompressedDiskWriter.write(path + ".lz4", "fast codec", new LZCodec());
+		CompressedDiskWriter.write(path + ".deflate", GZipDiskReader.readBytes(path), Codecs.get(GZipCodec.NAME));
+		CompressedDiskReader.readString(path + ".lz4");
+		CompressedDiskReader.read(path + ".deflate");
+		new File(path + ".lz4").delete();
+		new File(path + ".deflate").delete();
+		
+		GZipDiskReader.read(path);
+		GZipDiskReader.newCache(16 * 1024 * 1024).readString(path);
+		GZipDiskReader.forEachLine(path, System.out::println);
+		
+		try (Stream<String> lines = GZipDiskReader.lines(path))
+		{
+			lines.forEach(System.out::println);
+		}
+		
 		new File(path).delete();
 	}
 }